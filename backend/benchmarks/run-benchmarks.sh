@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+# Запуск JMH-бенчмарков с JSON-отчетом, пригодным для сравнения между коммитами.
+#
+#   ./run-benchmarks.sh                  # все бенчмарки
+#   ./run-benchmarks.sh Jwt              # только совпадающие с регулярным выражением
+#   ./run-benchmarks.sh Repository -p taskCount=50000
+#
+# Отчет: results/<дата>-<коммит>.json (формат JMH -rf json). Два отчета можно сравнить,
+# например, на https://jmh.morethan.io или jq по полям benchmark / primaryMetric.score.
+set -euo pipefail
+
+cd "$(dirname "$0")"
+
+FILTER="${1:-.*}"
+shift || true
+
+# Backend ставится в локальный репозиторий вместе с jar классов (classifier classes)
+mvn -B -q -f ../pom.xml -Pbenchmarks -DskipTests install
+mvn -B -q package
+
+COMMIT="$(git rev-parse --short HEAD 2>/dev/null || echo unknown)"
+if ! git diff --quiet HEAD -- .. 2>/dev/null; then
+    COMMIT="${COMMIT}-dirty"
+fi
+mkdir -p results
+REPORT="results/$(date +%Y%m%d-%H%M%S)-${COMMIT}.json"
+
+java -cp "target/classes:$(cat target/classpath.txt)" org.openjdk.jmh.Main \
+    -rf json -rff "$REPORT" "$FILTER" "$@"
+
+echo "Report: $REPORT"
@@ -0,0 +1,109 @@
+package com.taskmanager.benchmarks;
+
+import com.taskmanager.benchmarks.inserts.IdentityTaskRow;
+import com.taskmanager.benchmarks.inserts.PooledLoTaskRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+// Пакетная вставка задач: id из identity-колонки против последовательности с pooled-lo
+// (см. 012-switch-ids-to-pooled-sequences). С IDENTITY каждый INSERT уходит отдельно,
+// с pooled-lo вставки идут JDBC-батчами по hibernate.jdbc.batch_size.
+// H2 в памяти без сетевых round-trip'ов, поэтому на PostgreSQL разница заметно больше.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBenchmark {
+    @Param({"1000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private TransactionTemplate transaction;
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = PooledLoTaskRow.class)
+    static class InsertConfiguration {
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(InsertConfiguration.class)
+                .properties("spring.config.name=benchmark")
+                .run();
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        transaction = context.getBean(TransactionTemplate.class);
+    }
+
+    // Таблицы не растут от итерации к итерации
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        transaction.executeWithoutResult(status -> {
+            EntityManager entityManager = currentEntityManager();
+            entityManager.createQuery("DELETE FROM IdentityTaskRow").executeUpdate();
+            entityManager.createQuery("DELETE FROM PooledLoTaskRow").executeUpdate();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long identityInsert() {
+        return insert(i -> new IdentityTaskRow("Task " + i, "Description " + i, "TODO", 1L));
+    }
+
+    @Benchmark
+    public long pooledLoInsert() {
+        return insert(i -> new PooledLoTaskRow("Task " + i, "Description " + i, "TODO", 1L));
+    }
+
+    // Как при импорте: одна транзакция, flush и clear на каждом батче
+    private long insert(IntFunction<Object> rowFactory) {
+        return transaction.execute(status -> {
+            EntityManager entityManager = currentEntityManager();
+            for (int i = 0; i < rows; i++) {
+                entityManager.persist(rowFactory.apply(i));
+                if ((i + 1) % 50 == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+            return (long) rows;
+        });
+    }
+
+    private EntityManager currentEntityManager() {
+        return EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+    }
+}
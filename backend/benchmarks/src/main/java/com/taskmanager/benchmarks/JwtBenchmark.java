@@ -0,0 +1,81 @@
+package com.taskmanager.benchmarks;
+
+import com.taskmanager.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Выпуск и проверка JWT: с кэшем проверенных токенов (как в проде) и без него
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+    private static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hs256-signing";
+
+    private AnnotationConfigApplicationContext cachedContext;
+    private AnnotationConfigApplicationContext uncachedContext;
+    private JwtUtil cached;
+    private JwtUtil uncached;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cachedContext = createContext(true);
+        uncachedContext = createContext(false);
+        cached = cachedContext.getBean(JwtUtil.class);
+        uncached = uncachedContext.getBean(JwtUtil.class);
+        token = cached.generateToken(1L, "user1", "USER");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cachedContext.close();
+        uncachedContext.close();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cached.generateToken(1L, "user1", "USER");
+    }
+
+    @Benchmark
+    public Claims verifyCached() {
+        return cached.verifyToken(token);
+    }
+
+    @Benchmark
+    public Claims verifyUncached() {
+        return uncached.verifyToken(token);
+    }
+
+    // JwtUtil поднимается в минимальном контексте, чтобы отработали @Value и @PostConstruct
+    private static AnnotationConfigApplicationContext createContext(boolean cacheEnabled) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("jwt", Map.of(
+                "jwt.secret", SECRET,
+                "jwt.expiration", "86400000",
+                "jwt.embed-role", "true",
+                "jwt.cache.enabled", String.valueOf(cacheEnabled))));
+        context.register(JwtUtil.class);
+        context.refresh();
+        return context;
+    }
+}
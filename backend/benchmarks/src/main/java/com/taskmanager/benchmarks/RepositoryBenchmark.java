@@ -0,0 +1,140 @@
+package com.taskmanager.benchmarks;
+
+import com.taskmanager.dto.TaskDto;
+import com.taskmanager.dto.TaskFilter;
+import com.taskmanager.model.Project;
+import com.taskmanager.model.Task;
+import com.taskmanager.model.User;
+import com.taskmanager.repository.ProjectRepository;
+import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.util.KeysetCursor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Чтения через репозитории на встроенной H2, заполненной синтетическими данными.
+// Поднимается только JPA-часть приложения: без web, security и сервисов.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+    @Param({"10000"})
+    private int taskCount;
+
+    private ConfigurableApplicationContext context;
+    private TaskRepository taskRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private List<Long> pageIds;
+    private KeysetCursor secondPageCursor;
+    private Long someTaskId;
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan("com.taskmanager.model")
+    @EnableJpaRepositories("com.taskmanager.repository")
+    static class JpaOnlyConfiguration {
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(JpaOnlyConfiguration.class)
+                .properties("spring.config.name=benchmark")
+                .run();
+        taskRepository = context.getBean(TaskRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ProjectRepository projectRepository = context.getBean(ProjectRepository.class);
+        TransactionTemplate transaction = context.getBean(TransactionTemplate.class);
+
+        transaction.executeWithoutResult(status -> {
+            List<User> users = SyntheticData.users(50);
+            users.forEach(user -> user.setId(null));
+            users = userRepository.saveAll(users);
+            List<Project> projects = SyntheticData.projects(10, users);
+            projects.forEach(project -> project.setId(null));
+            projects = projectRepository.saveAll(projects);
+            List<Task> tasks = SyntheticData.tasks(taskCount, projects, users);
+            tasks.forEach(task -> task.setVersion(null));
+            taskRepository.saveAll(tasks);
+        });
+
+        readOnlyTransaction = new TransactionTemplate(transaction.getTransactionManager());
+        readOnlyTransaction.setReadOnly(true);
+        List<TaskDto> firstPage = taskRepository.findDtoPage(new TaskFilter(), null, 50);
+        TaskDto last = firstPage.get(firstPage.size() - 1);
+        secondPageCursor = new KeysetCursor(last.getUpdatedAt(), last.getId());
+        pageIds = firstPage.stream().map(TaskDto::getId).toList();
+        someTaskId = pageIds.get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TaskDto> firstPage() {
+        return taskRepository.findDtoPage(new TaskFilter(), null, 50);
+    }
+
+    @Benchmark
+    public List<TaskDto> keysetSecondPage() {
+        return taskRepository.findDtoPage(new TaskFilter(), secondPageCursor, 50);
+    }
+
+    @Benchmark
+    public List<TaskDto> projectFilteredPage() {
+        TaskFilter filter = new TaskFilter(List.of(1L), null, Task.TaskStatus.TODO, null, null);
+        return taskRepository.findDtoPage(filter, null, 50);
+    }
+
+    @Benchmark
+    public TaskDto dtoById() {
+        return taskRepository.findDtoById(someTaskId).orElseThrow();
+    }
+
+    @Benchmark
+    public List<TaskDto> dtoByIds() {
+        return taskRepository.findDtoByIdIn(pageIds);
+    }
+
+    // Для сравнения: загрузка сущностей со связями и маппинг, как до DTO-проекций
+    @Benchmark
+    public int entitiesByIds() {
+        return readOnlyTransaction.execute(status -> {
+            int size = 0;
+            for (Task task : taskRepository.findAllById(pageIds)) {
+                size += task.getProject().getName().length() + task.getReporter().getUsername().length();
+            }
+            return size;
+        });
+    }
+
+    @Benchmark
+    public List<Long> searchIds() {
+        return taskRepository.searchIds("searchable", List.of(1L, 2L, 3L), 0, 50);
+    }
+}
@@ -0,0 +1,92 @@
+package com.taskmanager.benchmarks;
+
+import com.taskmanager.dto.TaskDto;
+import com.taskmanager.model.Project;
+import com.taskmanager.model.Task;
+import com.taskmanager.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Синтетические данные с фиксированным seed, чтобы прогоны были сравнимы
+public final class SyntheticData {
+    private static final Task.TaskStatus[] STATUSES = Task.TaskStatus.values();
+    private static final Task.Priority[] PRIORITIES = Task.Priority.values();
+    private static final Task.TaskType[] TYPES = Task.TaskType.values();
+
+    private SyntheticData() {
+    }
+
+    public static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            User user = new User();
+            user.setId((long) i);
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setPassword("x");
+            users.add(user);
+        }
+        return users;
+    }
+
+    public static List<Project> projects(int count, List<User> owners) {
+        List<Project> projects = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Project project = new Project();
+            project.setId((long) i);
+            project.setName("Project " + i);
+            project.setKey("P" + i);
+            project.setDescription("Synthetic project " + i);
+            project.setOwner(owners.get(i % owners.size()));
+            projects.add(project);
+        }
+        return projects;
+    }
+
+    // Задачи без id — годятся и для маппинга в памяти, и для сохранения в БД
+    public static List<Task> tasks(int count, List<Project> projects, List<User> users) {
+        Random random = new Random(42);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        int[] numbers = new int[projects.size()];
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int projectIndex = random.nextInt(projects.size());
+            Project project = projects.get(projectIndex);
+            Task task = new Task();
+            task.setTitle("Task " + i + " " + Long.toHexString(random.nextLong()));
+            task.setDescription(random.nextBoolean() ? "Description of task " + i + " with some searchable words" : null);
+            task.setKey(project.getKey() + "-" + (++numbers[projectIndex]));
+            task.setType(TYPES[random.nextInt(TYPES.length)]);
+            task.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+            task.setPriority(PRIORITIES[random.nextInt(PRIORITIES.length)]);
+            task.setProject(project);
+            task.setReporter(users.get(random.nextInt(users.size())));
+            task.setAssignee(random.nextInt(4) == 0 ? null : users.get(random.nextInt(users.size())));
+            task.setCreatedAt(base.plusMinutes(i));
+            task.setUpdatedAt(base.plusMinutes(i).plusSeconds(random.nextInt(86_400)));
+            task.setVersion(0L);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    public static List<TaskDto> taskDtos(int count) {
+        List<User> users = users(50);
+        List<Task> tasks = tasks(count, projects(10, users), users);
+        List<TaskDto> dtos = new ArrayList<>(count);
+        long id = 1;
+        for (Task task : tasks) {
+            task.setId(id++);
+            dtos.add(new TaskDto(task.getId(), task.getTitle(), task.getDescription(), task.getKey(), task.getType(),
+                    task.getStatus(), task.getPriority(), task.getProject().getId(), task.getProject().getName(),
+                    task.getReporter().getId(), task.getReporter().getUsername(),
+                    task.getAssignee() != null ? task.getAssignee().getId() : null,
+                    task.getAssignee() != null ? task.getAssignee().getUsername() : null,
+                    task.getCreatedAt(), task.getUpdatedAt(), task.getVersion(), task.getCommentCount()));
+        }
+        return dtos;
+    }
+}
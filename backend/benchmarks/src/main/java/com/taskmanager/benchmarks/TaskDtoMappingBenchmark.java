@@ -0,0 +1,54 @@
+package com.taskmanager.benchmarks;
+
+import com.taskmanager.dto.TaskDto;
+import com.taskmanager.model.Task;
+import com.taskmanager.model.User;
+import com.taskmanager.service.TaskDtoMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Маппинг 10k сущностей Task в TaskDto через TaskDtoMapper
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskDtoMappingBenchmark {
+    private static final int TASK_COUNT = 10_000;
+
+    private final TaskDtoMapper mapper = new TaskDtoMapper();
+    private List<Task> tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<User> users = SyntheticData.users(50);
+        tasks = SyntheticData.tasks(TASK_COUNT, SyntheticData.projects(10, users), users);
+        long id = 1;
+        for (Task task : tasks) {
+            task.setId(id++);
+        }
+    }
+
+    @Benchmark
+    public List<TaskDto> mapTenThousandTasks() {
+        List<TaskDto> result = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            result.add(mapper.toDto(task));
+        }
+        return result;
+    }
+}
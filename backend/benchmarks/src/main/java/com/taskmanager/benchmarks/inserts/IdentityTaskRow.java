@@ -0,0 +1,36 @@
+package com.taskmanager.benchmarks.inserts;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Строка задачи с id из identity-колонки, как было до 012-switch-ids-to-pooled-sequences:
+// id известен только после INSERT, поэтому Hibernate не может батчить вставки
+@Entity
+@Table(name = "bench_identity_tasks")
+public class IdentityTaskRow {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String title;
+    private String description;
+    private String status;
+    private Long projectId;
+
+    protected IdentityTaskRow() {
+    }
+
+    public IdentityTaskRow(String title, String description, String status, Long projectId) {
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.projectId = projectId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
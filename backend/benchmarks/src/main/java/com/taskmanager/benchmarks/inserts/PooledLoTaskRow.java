@@ -0,0 +1,37 @@
+package com.taskmanager.benchmarks.inserts;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+// Та же строка с id из последовательности блоками по 50 (pooled-lo), как у Task сейчас
+@Entity
+@Table(name = "bench_pooled_tasks")
+public class PooledLoTaskRow {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bench_pooled_tasks_seq")
+    @SequenceGenerator(name = "bench_pooled_tasks_seq", sequenceName = "bench_pooled_tasks_seq", allocationSize = 50)
+    private Long id;
+
+    private String title;
+    private String description;
+    private String status;
+    private Long projectId;
+
+    protected PooledLoTaskRow() {
+    }
+
+    public PooledLoTaskRow(String title, String description, String status, Long projectId) {
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.projectId = projectId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,23 @@
+#!/usr/bin/env bash
+# Прогон tasks-read.js с сохранением сводки k6 в JSON.
+# Backend запускается отдельно в нужном режиме, например:
+#   VIRTUAL_THREADS=false mvn spring-boot:run                      # поток на запрос (Java 17/21)
+#   VIRTUAL_THREADS=true  mvn -Pjava21 spring-boot:run             # виртуальные потоки (Java 21)
+# затем:
+#   ./run-loadtest.sh platform
+#   ./run-loadtest.sh virtual
+# и сравнить results/platform-*.json и results/virtual-*.json (http_req_duration p(99), http_reqs rate,
+# а также hikaricp_connections_pending в /actuator/prometheus во время прогона).
+set -euo pipefail
+
+cd "$(dirname "$0")"
+
+LABEL="${1:?usage: run-loadtest.sh <label> [k6 args...]}"
+shift
+
+mkdir -p results
+SUMMARY="results/${LABEL}-$(date +%Y%m%d-%H%M%S).json"
+
+k6 run --summary-export "$SUMMARY" "$@" tasks-read.js
+
+echo "Summary: $SUMMARY"
@@ -0,0 +1,53 @@
+// Нагрузочный тест чтения задач (k6, https://k6.io).
+// Сравнение режимов: один и тот же прогон против backend'а с VIRTUAL_THREADS=false и =true,
+// см. run-loadtest.sh. Пользователь и пароль — из тестовых данных (006-insert-test-data).
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8082/api';
+const USERNAME = __ENV.USERNAME || 'admin';
+const PASSWORD = __ENV.PASSWORD || 'password';
+const VUS = parseInt(__ENV.VUS || '1000', 10);
+
+export const options = {
+  scenarios: {
+    reads: {
+      executor: 'ramping-vus',
+      startVUs: 0,
+      stages: [
+        { duration: '30s', target: VUS },
+        { duration: '2m', target: VUS },
+        { duration: '15s', target: 0 },
+      ],
+    },
+  },
+  summaryTrendStats: ['avg', 'med', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+  const response = http.post(`${BASE_URL}/auth/login`, JSON.stringify({ username: USERNAME, password: PASSWORD }), {
+    headers: { 'Content-Type': 'application/json' },
+  });
+  check(response, { 'logged in': (r) => r.status === 200 });
+  const token = response.json('token');
+  const projects = http.get(`${BASE_URL}/projects`, { headers: { Authorization: `Bearer ${token}` } }).json();
+  return { token, projectIds: projects.map((p) => p.id) };
+}
+
+export default function (data) {
+  const params = { headers: { Authorization: `Bearer ${data.token}` }, tags: { name: 'tasks' } };
+  const projectId = data.projectIds[Math.floor(Math.random() * data.projectIds.length)];
+
+  const page = http.get(`${BASE_URL}/tasks?projectIds=${projectId}&limit=50`, params);
+  check(page, { 'page 200': (r) => r.status === 200 });
+
+  const items = page.status === 200 ? page.json('items') : [];
+  if (items.length > 0) {
+    const task = items[Math.floor(Math.random() * items.length)];
+    const single = http.get(`${BASE_URL}/tasks/${task.id}`, { ...params, tags: { name: 'task' } });
+    check(single, { 'task 200': (r) => r.status === 200 });
+  }
+
+  const summary = http.get(`${BASE_URL}/projects/${projectId}/summary`, { ...params, tags: { name: 'summary' } });
+  check(summary, { 'summary 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,55 @@
+package com.taskmanager.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.taskmanager.event.UserChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+// Кэширующая обертка над UserDetailsServiceImpl: после проверки JWT не ходим в users на каждый запрос.
+// Запись сбрасывается после коммита любого изменения пользователя (роль, пароль, привязка OAuth2).
+@Primary
+@Service
+public class CachedUserDetailsService implements UserDetailsService {
+    private final UserDetailsServiceImpl delegate;
+    private final Cache<String, UserDetails> cache;
+
+    public CachedUserDetailsService(UserDetailsServiceImpl delegate,
+                                    @Value("${taskmanager.principal-cache.ttl:60s}") Duration ttl,
+                                    @Value("${taskmanager.principal-cache.max-size:10000}") long maxSize) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        // UsernameNotFoundException пробрасывается наружу, отсутствие пользователя не кэшируется
+        return cache.get(username, delegate::loadUserByUsername);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        cache.invalidate(event.username());
+    }
+
+    public CacheStats getCacheStats() {
+        return cache.stats();
+    }
+
+    // Для метрик (MetricsConfig)
+    public Cache<?, ?> getCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,49 @@
+package com.taskmanager.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.taskmanager.service.ProjectSummaryService;
+import com.taskmanager.util.JwtUtil;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Метрики приложения поверх стандартных actuator'а (HTTP, Hikari, JVM, Hibernate):
+// @Timed на сервисах, локальные Caffeine-кэши и число SQL-запросов на HTTP-запрос
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder localCacheMetrics(JwtUtil jwtUtil,
+                                         CachedUserDetailsService userDetailsService,
+                                         ProjectSummaryService projectSummaryService) {
+        return registry -> {
+            monitor(registry, jwtUtil.getCache(), "jwtClaims");
+            monitor(registry, userDetailsService.getCache(), "userDetails");
+            monitor(registry, projectSummaryService.getCache(), "projectSummary");
+        };
+    }
+
+    @Bean
+    public QueryCountingStatementInspector queryCountingStatementInspector() {
+        return new QueryCountingStatementInspector();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(QueryCountingStatementInspector inspector) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+
+    private static void monitor(MeterRegistry registry, Cache<?, ?> cache, String name) {
+        CaffeineCacheMetrics.monitor(registry, cache, name);
+    }
+}
@@ -0,0 +1,23 @@
+package com.taskmanager.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Считает SQL-запросы Hibernate в текущем потоке; QueryCountMetricsFilter
+// обнуляет счетчик в начале HTTP-запроса и записывает итог в метрику
+public class QueryCountingStatementInspector implements StatementInspector {
+    private static final ThreadLocal<int[]> COUNTER = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNTER.get()[0]++;
+        return sql;
+    }
+
+    public static void reset() {
+        COUNTER.get()[0] = 0;
+    }
+
+    public static int current() {
+        return COUNTER.get()[0];
+    }
+}
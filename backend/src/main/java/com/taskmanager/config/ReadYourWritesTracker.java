@@ -0,0 +1,36 @@
+package com.taskmanager.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Пользователи, недавно изменявшие данные: их чтения идут в основную БД, пока реплика не догонит.
+// Хранится в памяти инстанса — при балансировке без привязки к инстансу окно работает только на нем.
+@Component
+@ConditionalOnProperty(prefix = "taskmanager.datasource.replica", name = "url")
+public class ReadYourWritesTracker {
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(@Value("${taskmanager.datasource.replica.sticky-window:5s}") Duration window,
+                                 @Value("${taskmanager.datasource.replica.sticky-max-size:100000}") long maxSize) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    public void markWrite(String username) {
+        recentWriters.put(username, Boolean.TRUE);
+    }
+
+    public boolean isCurrentUserSticky() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && recentWriters.getIfPresent(authentication.getName()) != null;
+    }
+}
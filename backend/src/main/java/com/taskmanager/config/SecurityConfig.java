@@ -3,6 +3,7 @@ package com.taskmanager.config;
 import com.taskmanager.filter.JwtAuthenticationFilter;
 import com.taskmanager.service.OAuth2UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -25,6 +26,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
@@ -46,10 +48,13 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll() // Асинхронные dispatch'и SSE уже прошли проверку
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll() // Разрешаем OPTIONS для CORS
                         .requestMatchers("/auth/login", "/auth/register", "/h2-console/**").permitAll() // Разрешаем только login и register без аутентификации
                         .requestMatchers("/oauth2/**", "/login/oauth2/**").permitAll() // Разрешаем OAuth2 endpoints
                         .requestMatchers("/auth/me").authenticated() // /auth/me требует аутентификации
+                        .requestMatchers("/admin/**").hasRole("ADMIN")
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).permitAll() // actuator на отдельном management-порту, наружу не публикуется
                         .anyRequest().authenticated()
                 )
                 .oauth2Login(oauth2 -> oauth2
@@ -139,6 +144,7 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(List.of("http://localhost:3001", "http://frontend:3001"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(List.of("*"));
+        configuration.setExposedHeaders(List.of("ETag")); // для If-Match в PUT /tasks/{id}
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L); // Кэширование preflight запросов на 1 час
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
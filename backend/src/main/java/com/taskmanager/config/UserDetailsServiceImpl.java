@@ -3,11 +3,14 @@ package com.taskmanager.config;
 import com.taskmanager.model.User;
 import com.taskmanager.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
@@ -22,11 +25,8 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         // Используем пустую строку или специальное значение для OAuth2 пользователей
         String password = user.getPassword() != null ? user.getPassword() : "{noop}oauth2_user";
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(password)
-                .roles(user.getRole().name())
-                .build();
+        return new AuthenticatedUser(user.getId(), user.getUsername(), password,
+                List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name())));
     }
 }
 
@@ -0,0 +1,25 @@
+package com.taskmanager.controller;
+
+import com.taskmanager.service.CacheStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+// Служебные эндпоинты, доступны только ADMIN (см. SecurityConfig)
+@RestController
+@RequestMapping("/admin")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class AdminController {
+    private final CacheStatsService cacheStatsService;
+
+    @GetMapping("/cache-stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(cacheStatsService.getStats());
+    }
+}
@@ -0,0 +1,56 @@
+package com.taskmanager.controller;
+
+import com.taskmanager.dto.CommentDto;
+import com.taskmanager.dto.CursorPageDto;
+import com.taskmanager.service.CommentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/tasks/{taskId}/comments")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class CommentController {
+    private final CommentService commentService;
+
+    // Комментарии от старых к новым, страницы по курсору nextCursor
+    @GetMapping
+    public ResponseEntity<CursorPageDto<CommentDto>> getComments(
+            @PathVariable Long taskId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(commentService.getComments(taskId, cursor, limit));
+    }
+
+    @PostMapping
+    public ResponseEntity<CommentDto> addComment(
+            @PathVariable Long taskId,
+            @RequestBody CommentDto commentDto,
+            Authentication authentication
+    ) {
+        return ResponseEntity.ok(commentService.addComment(taskId, commentDto, authentication.getName()));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<CommentDto> updateComment(
+            @PathVariable Long taskId,
+            @PathVariable Long id,
+            @RequestBody CommentDto commentDto,
+            Authentication authentication
+    ) {
+        return ResponseEntity.ok(commentService.updateComment(taskId, id, commentDto, authentication.getName()));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteComment(
+            @PathVariable Long taskId,
+            @PathVariable Long id,
+            Authentication authentication
+    ) {
+        commentService.deleteComment(taskId, id, authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+}
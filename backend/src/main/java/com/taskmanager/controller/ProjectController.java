@@ -1,13 +1,31 @@
 package com.taskmanager.controller;
 
+import com.taskmanager.dto.ProjectDeletionStatus;
 import com.taskmanager.dto.ProjectDto;
+import com.taskmanager.dto.ProjectMembersRequest;
+import com.taskmanager.dto.ProjectSummaryDto;
+import com.taskmanager.dto.TaskImportResult;
+import com.taskmanager.service.ProjectDeletionService;
 import com.taskmanager.service.ProjectService;
+import com.taskmanager.service.ProjectSummaryService;
+import com.taskmanager.service.TaskEventStream;
+import com.taskmanager.service.TaskFileFormat;
+import com.taskmanager.service.TaskImportService;
+import com.taskmanager.util.ETags;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -16,15 +34,63 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class ProjectController {
     private final ProjectService projectService;
+    private final TaskEventStream taskEventStream;
+    private final ProjectSummaryService projectSummaryService;
+    private final TaskImportService taskImportService;
+    private final ProjectDeletionService projectDeletionService;
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
 
     @GetMapping
-    public ResponseEntity<List<ProjectDto>> getAllProjects(Authentication authentication) {
-        return ResponseEntity.ok(projectService.getAllProjects(authentication.getName()));
+    public ResponseEntity<List<ProjectDto>> getAllProjects(Authentication authentication, WebRequest request) {
+        String etag = projectService.getProjectsETag(authentication.getName());
+        if (request.checkNotModified(etag)) {
+            return null; // 304 и ETag уже выставлены checkNotModified
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(etag)
+                .body(projectService.getAllProjects(authentication.getName()));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProjectDto> getProjectById(@PathVariable Long id) {
-        return ResponseEntity.ok(projectService.getProjectById(id));
+    public ResponseEntity<ProjectDto> getProjectById(@PathVariable Long id, WebRequest request) {
+        String etag = projectService.getProjectETag(id);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        ProjectDto project = projectService.getProjectById(id);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(ETags.forProject(project.getId(), project.getVersion()))
+                .body(project);
+    }
+
+    // Счетчики задач по статусам, приоритетам, типам и исполнителям для шапки доски
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<ProjectSummaryDto> getProjectSummary(@PathVariable Long id) {
+        return ResponseEntity.ok(projectSummaryService.getSummary(id));
+    }
+
+    // Импорт задач из CSV/NDJSON: тело запроса читается потоком, без multipart и промежуточного файла
+    @PostMapping(value = "/{id}/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<TaskImportResult> importTasks(@PathVariable Long id,
+                                                        @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                        HttpServletRequest request,
+                                                        Authentication authentication) throws IOException {
+        TaskFileFormat format = TaskFileFormat.fromContentType(contentType);
+        return ResponseEntity.ok(taskImportService.importTasks(id, format, request.getInputStream(), authentication.getName()));
+    }
+
+    @GetMapping("/{id}/import/progress")
+    public ResponseEntity<TaskImportResult> getImportProgress(@PathVariable Long id) {
+        return ResponseEntity.ok(taskImportService.getProgress(id));
+    }
+
+    // Поток изменений задач проекта (SSE); при переподключении браузер сам присылает Last-Event-ID
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTaskEvents(@PathVariable Long id,
+                                       @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                       HttpServletResponse response) {
+        projectService.getProjectById(id); // 400, если проекта нет
+        response.setHeader("X-Accel-Buffering", "no"); // nginx не должен буферизовать поток
+        return taskEventStream.subscribe(id, lastEventId);
     }
 
     @PostMapping
@@ -37,10 +103,37 @@ public class ProjectController {
         return ResponseEntity.ok(projectService.updateProject(id, projectDto));
     }
 
+    // Участники: по одному или списком (до 1000 id), менять может только владелец
+    @PostMapping("/{id}/members")
+    public ResponseEntity<ProjectDto> addMembers(@PathVariable Long id, @Valid @RequestBody ProjectMembersRequest request) {
+        return ResponseEntity.ok(projectService.addMembers(id, request.getUserIds()));
+    }
+
+    @DeleteMapping("/{id}/members")
+    public ResponseEntity<ProjectDto> removeMembers(@PathVariable Long id, @Valid @RequestBody ProjectMembersRequest request) {
+        return ResponseEntity.ok(projectService.removeMembers(id, request.getUserIds()));
+    }
+
+    @PostMapping("/{id}/members/{userId}")
+    public ResponseEntity<ProjectDto> addMember(@PathVariable Long id, @PathVariable Long userId) {
+        return ResponseEntity.ok(projectService.addMembers(id, List.of(userId)));
+    }
+
+    @DeleteMapping("/{id}/members/{userId}")
+    public ResponseEntity<ProjectDto> removeMember(@PathVariable Long id, @PathVariable Long userId) {
+        return ResponseEntity.ok(projectService.removeMembers(id, List.of(userId)));
+    }
+
+    // Проект сразу скрывается, содержимое удаляется в фоне: 202 и статус, дальше — GET /{id}/deletion
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteProject(@PathVariable Long id) {
+    public ResponseEntity<ProjectDeletionStatus> deleteProject(@PathVariable Long id) {
         projectService.deleteProject(id);
-        return ResponseEntity.noContent().build();
+        return ResponseEntity.accepted().body(projectDeletionService.getStatus(id));
+    }
+
+    @GetMapping("/{id}/deletion")
+    public ResponseEntity<ProjectDeletionStatus> getDeletionStatus(@PathVariable Long id) {
+        return ResponseEntity.ok(projectDeletionService.getStatus(id));
     }
 }
 
@@ -1,14 +1,30 @@
 package com.taskmanager.controller;
 
+import com.taskmanager.dto.CursorPageDto;
+import com.taskmanager.dto.TaskBatchRequest;
+import com.taskmanager.dto.TaskBatchResult;
+import com.taskmanager.dto.TaskChangesDto;
 import com.taskmanager.dto.TaskDto;
+import com.taskmanager.dto.TaskFilter;
+import com.taskmanager.model.Task;
+import com.taskmanager.service.ProjectAccessIndex;
+import com.taskmanager.service.TaskExportService;
+import com.taskmanager.service.TaskFileFormat;
 import com.taskmanager.service.TaskService;
+import com.taskmanager.service.TaskSyncService;
+import com.taskmanager.util.ETags;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -19,18 +35,84 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class TaskController {
     private final TaskService taskService;
+    private final TaskExportService taskExportService;
+    private final TaskSyncService taskSyncService;
+    private final ProjectAccessIndex projectAccessIndex;
+
+    // Клиенты и прокси могут хранить ответ, но обязаны перепроверять его по ETag
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
 
     @GetMapping
-    public ResponseEntity<List<TaskDto>> getAllTasks(
+    public ResponseEntity<CursorPageDto<TaskDto>> getAllTasks(
+            @RequestParam(required = false) List<Long> projectIds,
+            @RequestParam(required = false) Long assigneeId,
+            @RequestParam(required = false) Task.TaskStatus status,
+            @RequestParam(required = false) Task.Priority priority,
+            @RequestParam(required = false) Task.TaskType type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request
+    ) {
+        TaskFilter filter = projectAccessIndex.restrict(new TaskFilter(projectIds, assigneeId, status, priority, type));
+        String etag = taskService.getTasksETag(filter, cursor, limit);
+        if (request.checkNotModified(etag)) {
+            return null; // 304 и ETag уже выставлены checkNotModified
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(etag)
+                .body(taskService.getAllTasks(filter, cursor, limit));
+    }
+
+    // Полная выгрузка для отчетов: NDJSON (по умолчанию) или CSV, пишется в ответ по мере чтения из БД
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @RequestParam(required = false) List<Long> projectIds,
+            @RequestParam(required = false) Long assigneeId,
+            @RequestParam(required = false) Task.TaskStatus status,
+            @RequestParam(required = false) Task.Priority priority,
+            @RequestParam(required = false) Task.TaskType type,
+            @RequestParam(defaultValue = "ndjson") String format
+    ) {
+        // Доступ проверяется здесь: сама выгрузка пишется в другом потоке, без контекста безопасности
+        TaskFilter filter = projectAccessIndex.restrict(new TaskFilter(projectIds, assigneeId, status, priority, type));
+        TaskFileFormat exportFormat = TaskFileFormat.fromParam(format);
+        StreamingResponseBody body = out -> taskExportService.export(filter, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<CursorPageDto<TaskDto>> searchTasks(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(taskService.searchTasks(query, cursor, limit));
+    }
+
+    // Инкрементальная синхронизация: задачи, созданные или измененные после since, и id удаленных.
+    // Без since — полная выгрузка порциями; при hasMore запрашивать снова с новым watermark
+    @GetMapping("/changes")
+    public ResponseEntity<TaskChangesDto> getChanges(
             @RequestParam(required = false) List<Long> projectIds,
-            @RequestParam(required = false) Long assigneeId
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit
     ) {
-        return ResponseEntity.ok(taskService.getAllTasks(projectIds, assigneeId));
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore())
+                .body(taskSyncService.getChanges(
+                        projectAccessIndex.restrict(new TaskFilter(projectIds, null, null, null, null)).getProjectIds(),
+                        since, limit));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<TaskDto> getTaskById(@PathVariable Long id) {
-        return ResponseEntity.ok(taskService.getTaskById(id));
+    public ResponseEntity<TaskDto> getTaskById(@PathVariable Long id, WebRequest request) {
+        String etag = taskService.getTaskETag(id);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        TaskDto task = taskService.getTaskById(id);
+        return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(ETags.forTask(task.getId(), task.getVersion())).body(task);
     }
 
     @PostMapping
@@ -38,8 +120,15 @@ public class TaskController {
         return ResponseEntity.ok(taskService.createTask(taskDto, authentication.getName()));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<TaskBatchResult>> applyBatch(@Valid @RequestBody TaskBatchRequest request, Authentication authentication) {
+        return ResponseEntity.ok(taskService.applyBatch(request, authentication.getName()));
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<TaskDto> updateTask(@PathVariable Long id, @Valid @RequestBody TaskDto taskDto, Authentication authentication) {
+    public ResponseEntity<TaskDto> updateTask(@PathVariable Long id, @Valid @RequestBody TaskDto taskDto,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                              Authentication authentication) {
         String username;
         
         // Для OAuth2 пользователей получаем username из UserDetails
@@ -53,7 +142,8 @@ public class TaskController {
         log.info("UpdateTask - TaskID: {}, NewStatus: {}, User: {}, AuthType: {}", 
             id, taskDto.getStatus(), username, authentication.getClass().getSimpleName());
         
-        return ResponseEntity.ok(taskService.updateTask(id, taskDto, username));
+        TaskDto task = taskService.updateTask(id, taskDto, username, ifMatch);
+        return ResponseEntity.ok().eTag(ETags.forTask(task.getId(), task.getVersion())).body(task);
     }
 
     @DeleteMapping("/{id}")
@@ -1,12 +1,16 @@
 package com.taskmanager.controller;
 
-import com.taskmanager.model.User;
+import com.taskmanager.dto.UserSummaryDto;
+import com.taskmanager.exception.ForbiddenException;
 import com.taskmanager.repository.UserRepository;
+import com.taskmanager.service.ProjectAccessIndex;
+import com.taskmanager.service.UserSearchService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -18,14 +22,30 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class UserController {
     private final UserRepository userRepository;
+    private final UserSearchService userSearchService;
+    private final ProjectAccessIndex projectAccessIndex;
 
+    // Полный список с email — только для администратора; выбор пользователя в UI идет через /users/search
     @GetMapping
     public ResponseEntity<List<UserDto>> getAllUsers() {
+        if (!projectAccessIndex.currentUser().isAdmin()) {
+            throw new ForbiddenException("Only administrators can list all users");
+        }
         return ResponseEntity.ok(userRepository.findAll().stream()
                 .map(user -> new UserDto(user.getId(), user.getUsername(), user.getEmail()))
                 .collect(Collectors.toList()));
     }
 
+    // Подсказки по префиксу username, имени или фамилии (email — только администратору); projectId — только участники проекта
+    @GetMapping("/search")
+    public ResponseEntity<List<UserSummaryDto>> searchUsers(
+            @RequestParam String prefix,
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(userSearchService.search(prefix, projectId, limit));
+    }
+
     // Внутренний DTO для передачи списка пользователей
     @lombok.Data
     @lombok.AllArgsConstructor
@@ -0,0 +1,20 @@
+package com.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor // используется JPQL-проекцией в CommentRepository
+public class CommentDto {
+    private Long id;
+    private String content;
+    private Long taskId;
+    private Long authorId;
+    private String authorUsername;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,17 @@
+package com.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectDeletionStatus {
+    private Long projectId;
+    private boolean finished;
+    private Long totalTasks; // null, пока удаление не началось на этом инстансе
+    private long deletedTasks;
+    private long durationMs;
+    private String error; // последняя ошибка; удаление будет повторено при следующем обходе
+}
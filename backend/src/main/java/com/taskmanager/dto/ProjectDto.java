@@ -16,5 +16,6 @@ public class ProjectDto {
     private List<Long> memberIds;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
 
@@ -0,0 +1,14 @@
+package com.taskmanager.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ProjectMembersRequest {
+    @NotEmpty(message = "User ids are required")
+    @Size(max = 1000, message = "Request is limited to 1000 users")
+    private List<Long> userIds;
+}
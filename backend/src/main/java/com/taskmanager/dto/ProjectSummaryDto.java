@@ -0,0 +1,30 @@
+package com.taskmanager.dto;
+
+import com.taskmanager.model.Task;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectSummaryDto {
+    private Long projectId;
+    private long total;
+    private Map<Task.TaskStatus, Long> byStatus;
+    private Map<Task.Priority, Long> byPriority;
+    private Map<Task.TaskType, Long> byType;
+    private List<AssigneeCount> byAssignee;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AssigneeCount {
+        private Long assigneeId; // null — задачи без исполнителя
+        private String assigneeUsername;
+        private long count;
+    }
+}
@@ -0,0 +1,29 @@
+package com.taskmanager.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TaskBatchRequest {
+    @NotEmpty(message = "Operations are required")
+    @Size(max = 1000, message = "Batch is limited to 1000 operations")
+    @Valid
+    private List<Operation> operations;
+
+    @Data
+    public static class Operation {
+        @NotNull(message = "Action is required")
+        private Action action;
+        private Long id;       // для UPDATE и DELETE
+        private TaskDto task;  // для CREATE и UPDATE
+    }
+
+    public enum Action {
+        CREATE, UPDATE, DELETE
+    }
+}
@@ -0,0 +1,25 @@
+package com.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBatchResult {
+    private int index; // позиция операции в запросе
+    private TaskBatchRequest.Action action;
+    private Long id;
+    private boolean success;
+    private String error;
+    private TaskDto task;
+
+    public static TaskBatchResult ok(int index, TaskBatchRequest.Action action, Long id, TaskDto task) {
+        return new TaskBatchResult(index, action, id, true, null, task);
+    }
+
+    public static TaskBatchResult failed(int index, TaskBatchRequest.Action action, Long id, String error) {
+        return new TaskBatchResult(index, action, id, false, error, null);
+    }
+}
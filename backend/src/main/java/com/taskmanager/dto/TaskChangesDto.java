@@ -0,0 +1,17 @@
+package com.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskChangesDto {
+    private List<TaskDto> changed; // созданные и измененные задачи
+    private List<Long> deletedIds;
+    private String watermark; // передается в since следующего запроса
+    private boolean hasMore; // true — изменения получены не все, запросить сразу еще раз
+}
@@ -1,11 +1,15 @@
 package com.taskmanager.dto;
 
 import com.taskmanager.model.Task;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor // используется JPQL-проекцией в TaskRepositoryCustom
 public class TaskDto {
     private Long id;
     private String title;
@@ -22,5 +26,7 @@ public class TaskDto {
     private String assigneeUsername;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
+    private int commentCount;
 }
 
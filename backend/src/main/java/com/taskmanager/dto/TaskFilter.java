@@ -0,0 +1,19 @@
+package com.taskmanager.dto;
+
+import com.taskmanager.model.Task;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskFilter {
+    private List<Long> projectIds;
+    private Long assigneeId;
+    private Task.TaskStatus status;
+    private Task.Priority priority;
+    private Task.TaskType type;
+}
@@ -0,0 +1,28 @@
+package com.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskImportResult {
+    private Long projectId;
+    private boolean finished;
+    private long processed;
+    private long imported;
+    private long failed;
+    private long durationMs;
+    private List<RowError> errors; // не больше taskmanager.import.max-errors
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String message;
+    }
+}
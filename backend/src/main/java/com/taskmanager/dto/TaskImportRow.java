@@ -0,0 +1,20 @@
+package com.taskmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+// Строка файла импорта задач; пользователи указываются по username
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TaskImportRow {
+    private String title;
+    private String description;
+    private String type;
+    private String status;
+    private String priority;
+    @JsonAlias("assigneeUsername")
+    private String assignee;
+    @JsonAlias("reporterUsername")
+    private String reporter;
+}
@@ -0,0 +1,16 @@
+package com.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Пользователь в подсказках поиска: без email и прочих личных данных
+@Data
+@NoArgsConstructor
+@AllArgsConstructor // используется JPQL-проекцией в UserRepository
+public class UserSummaryDto {
+    private Long id;
+    private String username;
+    private String firstName;
+    private String lastName;
+}
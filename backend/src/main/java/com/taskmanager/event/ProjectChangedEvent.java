@@ -0,0 +1,5 @@
+package com.taskmanager.event;
+
+// Публикуется ProjectService после создания, изменения или удаления проекта
+public record ProjectChangedEvent(Long projectId) {
+}
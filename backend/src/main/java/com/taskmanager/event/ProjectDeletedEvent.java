@@ -0,0 +1,5 @@
+package com.taskmanager.event;
+
+// Публикуется ProjectService, когда проект отмечен удаленным; содержимое вычищает ProjectDeletionService
+public record ProjectDeletedEvent(Long projectId) {
+}
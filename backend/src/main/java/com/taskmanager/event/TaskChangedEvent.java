@@ -0,0 +1,11 @@
+package com.taskmanager.event;
+
+import com.taskmanager.dto.TaskDto;
+
+// Публикуется TaskService после изменения задачи; task == null для DELETED
+public record TaskChangedEvent(Type type, Long projectId, Long taskId, TaskDto task) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
@@ -0,0 +1,4 @@
+package com.taskmanager.event;
+
+public record UserChangedEvent(Long userId, String username) {
+}
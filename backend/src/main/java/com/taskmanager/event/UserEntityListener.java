@@ -0,0 +1,24 @@
+package com.taskmanager.event;
+
+import com.taskmanager.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+// JPA-листенер сущности User (Hibernate получает его из Spring-контекста).
+// Любое изменение пользователя превращается в UserChangedEvent, на который подписаны кэши.
+@Component
+@RequiredArgsConstructor
+public class UserEntityListener {
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
+    }
+}
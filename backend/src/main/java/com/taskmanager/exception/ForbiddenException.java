@@ -0,0 +1,8 @@
+package com.taskmanager.exception;
+
+// Нет доступа к проекту или его задачам (HTTP 403)
+public class ForbiddenException extends RuntimeException {
+    public ForbiddenException(String message) {
+        super(message);
+    }
+}
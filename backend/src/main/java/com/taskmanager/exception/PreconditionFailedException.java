@@ -0,0 +1,8 @@
+package com.taskmanager.exception;
+
+// If-Match не совпал с текущей версией ресурса (HTTP 412)
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.taskmanager.exception;
+
+// Токен синхронизации старше срока хранения удалений — клиенту нужна полная синхронизация (HTTP 410)
+public class SyncTokenExpiredException extends RuntimeException {
+    public SyncTokenExpiredException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,10 @@
 package com.taskmanager.filter;
 
+import com.taskmanager.config.AuthenticatedUser;
 import com.taskmanager.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,6 +12,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -15,12 +20,14 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
@@ -46,24 +53,41 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return false;
     }
 
+    private boolean isEventStream(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return "GET".equals(request.getMethod()) && path != null && path.startsWith("/projects/") && path.endsWith("/events");
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
         String authHeader = request.getHeader("Authorization");
-
+        String token = null;
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            String username = jwtUtil.getUsernameFromToken(token);
+            token = authHeader.substring(7);
+        } else if (isEventStream(request)) {
+            // EventSource в браузере не умеет слать заголовки, поэтому для SSE токен можно передать параметром
+            token = request.getParameter("access_token");
+        }
+
+        if (token != null) {
+            // Подпись и срок проверяются один раз, повторные запросы с тем же токеном берут claims из кэша
+            Timer.Sample sample = Timer.start(meterRegistry);
+            Claims claims = jwtUtil.verifyToken(token);
+            sample.stop(meterRegistry.timer("taskmanager.jwt.verify", "result", claims != null ? "valid" : "invalid"));
+            String username = claims != null ? claims.getSubject() : null;
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                if (jwtUtil.validateToken(token)) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                    UsernamePasswordAuthenticationToken authentication =
-                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                }
+                String role = jwtUtil.getRole(claims);
+                Long userId = jwtUtil.getUserId(claims);
+                UserDetails userDetails = role != null && userId != null
+                        ? new AuthenticatedUser(userId, username, "", List.of(new SimpleGrantedAuthority("ROLE_" + role)))
+                        : userDetailsService.loadUserByUsername(username);
+                UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         }
 
@@ -0,0 +1,50 @@
+package com.taskmanager.filter;
+
+import com.taskmanager.config.ReadYourWritesTracker;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+// После изменяющего запроса пользователя его чтения на короткое время идут в основную БД.
+// Отмечаем и до обработки (чтения внутри того же запроса), и после (окно считается от завершения записи).
+@Component
+@ConditionalOnProperty(prefix = "taskmanager.datasource.replica", name = "url")
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return READ_METHODS.contains(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication != null && !(authentication instanceof AnonymousAuthenticationToken) ? authentication.getName() : null;
+        if (username != null) {
+            readYourWritesTracker.markWrite(username);
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (username != null) {
+                readYourWritesTracker.markWrite(username);
+            }
+        }
+    }
+}
@@ -4,19 +4,24 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // регион в application.conf
 @Table(name = "projects")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Project {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "projects_id_seq")
+    @SequenceGenerator(name = "projects_id_seq", sequenceName = "projects_id_seq", allocationSize = 50) // pooled-lo, см. 012-switch-ids-to-pooled-sequences
     private Long id;
 
     @Column(nullable = false)
@@ -31,16 +36,16 @@ public class Project {
     @JoinColumn(name = "owner_id", nullable = false)
     private User owner;
 
-    @ManyToMany
-    @JoinTable(
-        name = "project_members",
-        joinColumns = @JoinColumn(name = "project_id"),
-        inverseJoinColumns = @JoinColumn(name = "user_id")
-    )
-    private List<User> members = new ArrayList<>();
+    // Только id участников: набор без порядка, поэтому добавление и удаление участника — одна строка
+    // в project_members, без перезаписи всей коллекции и без загрузки пользователей
+    @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @CollectionTable(name = "project_members", joinColumns = @JoinColumn(name = "project_id"))
+    @Column(name = "user_id", nullable = false)
+    private Set<Long> memberIds = new HashSet<>();
 
-    @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<Task> tasks = new ArrayList<>();
+    @Version
+    private Long version; // оптимистичная блокировка, см. 014-add-optimistic-lock-versions
 
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -48,6 +53,15 @@ public class Project {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Задачи проекта не отображаются коллекцией: удаление идет порциями через ProjectDeletionService,
+    // а пока оно не закончено, проект с deleted_at считается удаленным
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    public boolean isDeleted() {
+        return deletedAt != null;
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
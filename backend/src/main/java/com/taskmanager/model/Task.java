@@ -6,8 +6,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 
 @Entity
 @Table(name = "tasks")
@@ -16,7 +14,8 @@ import java.util.List;
 @AllArgsConstructor
 public class Task {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_id_seq")
+    @SequenceGenerator(name = "tasks_id_seq", sequenceName = "tasks_id_seq", allocationSize = 50) // pooled-lo, см. 012-switch-ids-to-pooled-sequences
     private Long id;
 
     @Column(nullable = false)
@@ -48,8 +47,14 @@ public class Task {
     @JoinColumn(name = "assignee_id")
     private User assignee;
 
-    @OneToMany(mappedBy = "task", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<Comment> comments = new ArrayList<>();
+    // Комментарии не отображаются коллекцией: читаются страницами через CommentService, при удалении
+    // задачи удаляются в БД (fk_comments_task ON DELETE CASCADE). Счетчик меняется только
+    // SQL-инкрементом в TaskRepository.adjustCommentCount
+    @Column(name = "comment_count", insertable = false, updatable = false)
+    private int commentCount;
+
+    @Version
+    private Long version; // оптимистичная блокировка, см. 014-add-optimistic-lock-versions
 
     @Column(name = "created_at")
     private LocalDateTime createdAt;
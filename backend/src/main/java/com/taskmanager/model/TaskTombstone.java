@@ -0,0 +1,38 @@
+package com.taskmanager.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+// Отметка об удаленной задаче для инкрементальной синхронизации (GET /tasks/changes)
+@Entity
+@Table(name = "task_tombstones")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskTombstone implements Persistable<Long> {
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    @Override
+    public Long getId() {
+        return taskId;
+    }
+
+    // Отметки только добавляются: save() делает persist без предварительного SELECT
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -1,14 +1,37 @@
 package com.taskmanager.repository;
 
+import com.taskmanager.dto.CommentDto;
 import com.taskmanager.model.Comment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    String COMMENT_DTO_SELECT = "SELECT new com.taskmanager.dto.CommentDto("
+            + "c.id, c.content, c.task.id, a.id, a.username, c.createdAt, c.updatedAt) "
+            + "FROM Comment c JOIN c.author a";
+
     List<Comment> findByTaskId(Long taskId);
     List<Comment> findByAuthorId(Long authorId);
-}
 
+    // Страницы комментариев задачи по возрастанию (createdAt, id), индекс idx_comments_task_created_at_id
+    @Query(COMMENT_DTO_SELECT + " WHERE c.task.id = :taskId ORDER BY c.createdAt, c.id")
+    List<CommentDto> findDtoPage(@Param("taskId") Long taskId, Limit limit);
+
+    @Query(COMMENT_DTO_SELECT + " WHERE c.task.id = :taskId "
+            + "AND (c.createdAt > :afterCreatedAt OR (c.createdAt = :afterCreatedAt AND c.id > :afterId)) "
+            + "ORDER BY c.createdAt, c.id")
+    List<CommentDto> findDtoPageAfter(@Param("taskId") Long taskId,
+                                      @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                      @Param("afterId") Long afterId,
+                                      Limit limit);
+
+    Optional<Comment> findByIdAndTaskId(Long id, Long taskId);
+}
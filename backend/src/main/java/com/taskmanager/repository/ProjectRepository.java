@@ -1,21 +1,71 @@
 package com.taskmanager.repository;
 
 import com.taskmanager.model.Project;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProjectRepository extends JpaRepository<Project, Long> {
+public interface ProjectRepository extends JpaRepository<Project, Long>, ProjectRepositoryCustom {
     Optional<Project> findByKey(String key);
     List<Project> findByOwnerId(Long ownerId);
-    List<Project> findByMembersId(Long memberId);
-    
-    @Query("SELECT DISTINCT p FROM Project p LEFT JOIN p.members m WHERE p.owner.id = :userId OR m.id = :userId")
+
+    // Кэш запросов: список id из кэша, сами проекты — из кэша второго уровня
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT DISTINCT p FROM Project p LEFT JOIN p.memberIds m " +
+            "WHERE (p.owner.id = :userId OR m = :userId) AND p.deletedAt IS NULL")
     List<Project> findByOwnerIdOrMembersId(@Param("userId") Long userId);
+
+    // Состояние списка проектов пользователя (ETag GET /projects): количество, версии проектов
+    // (меняются и при изменении участников) и время изменения владельцев, чьи имена входят в ProjectDto
+    @Query("SELECT COUNT(p), SUM(p.version), MAX(p.updatedAt), MAX(o.updatedAt) FROM Project p JOIN p.owner o " +
+            "WHERE p.deletedAt IS NULL AND (o.id = :userId OR :userId MEMBER OF p.memberIds)")
+    List<Object[]> findListingVersionByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT p.version FROM Project p WHERE p.id = :id AND p.deletedAt IS NULL")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Проект, отмеченный удаленным, для API уже не существует. Запросом, а не findById: кэш второго уровня
+    // локален для инстанса, и отметку удаления, сделанную другим инстансом, он может еще не видеть —
+    // задачи, созданные в уже удаляемом проекте, остались бы у клиентов синхронизации без отметок
+    @Query("SELECT p FROM Project p WHERE p.id = :id AND p.deletedAt IS NULL")
+    Optional<Project> findActiveById(@Param("id") Long id);
+
+    // Владельцы и участники для ProjectAccessIndex
+    @Query("SELECT p.id, p.owner.id, p.version FROM Project p WHERE p.deletedAt IS NULL")
+    List<Object[]> findAllOwnerIds();
+
+    // Версии всех проектов: version растет при любом изменении проекта, в том числе состава участников
+    @Query("SELECT p.id, p.version FROM Project p WHERE p.deletedAt IS NULL")
+    List<Object[]> findAllVersions();
+
+    @Query("SELECT p.id, m FROM Project p JOIN p.memberIds m WHERE p.deletedAt IS NULL")
+    List<Object[]> findAllMemberIds();
+
+    @Query("SELECT p.owner.id, p.version FROM Project p WHERE p.id = :id AND p.deletedAt IS NULL")
+    List<Object[]> findOwnerIdAndVersionById(@Param("id") Long id);
+
+    // Владелец проекта, отмеченного удаленным: в ProjectAccessIndex такого проекта уже нет
+    @Query("SELECT p.owner.id FROM Project p WHERE p.id = :id AND p.deletedAt IS NOT NULL")
+    Optional<Long> findDeletedOwnerIdById(@Param("id") Long id);
+
+    // Участники одним запросом только по id, без загрузки пользователей
+    @Query("SELECT m FROM Project p JOIN p.memberIds m WHERE p.id = :id")
+    List<Long> findMemberIdsById(@Param("id") Long id);
+
+    @Query("SELECT p.id, m FROM Project p JOIN p.memberIds m WHERE p.id IN :ids")
+    List<Object[]> findMemberIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Отмеченные удаленными, но еще не вычищенные — их подбирает ProjectDeletionService
+    @Query("SELECT p.id FROM Project p WHERE p.deletedAt IS NOT NULL ORDER BY p.deletedAt")
+    List<Long> findDeletedIds();
 }
 
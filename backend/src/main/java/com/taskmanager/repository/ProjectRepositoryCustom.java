@@ -0,0 +1,26 @@
+package com.taskmanager.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Порционное удаление содержимого проекта множественными DELETE, без загрузки сущностей
+public interface ProjectRepositoryCustom {
+    long countTasks(Long projectId);
+
+    List<Long> findTaskIds(Long projectId, int limit);
+
+    // Отметки для синхронизации, комментарии и сами задачи; возвращает число удаленных задач
+    int deleteTasks(List<Long> taskIds, LocalDateTime deletedAt);
+
+    // Захват вычистки удаленного проекта инстансом instanceId: true, если проект не захвачен другим
+    // инстансом или его захват старше expiredBefore. Повторный вызов тем же инстансом продлевает захват.
+    // Строка проекта блокируется до конца транзакции, поэтому две вычистки одной порции не пересекаются
+    boolean claimDeletion(Long projectId, String instanceId, LocalDateTime now, LocalDateTime expiredBefore);
+
+    // SELECT ... FOR UPDATE строки проекта до конца транзакции: конфликтует с блокировкой, которую берет
+    // вставка задачи со ссылкой на проект, так что новые задачи ждут (а после удаления проекта не проходят)
+    void lockProjectRow(Long projectId);
+
+    // Участники и строка проекта; задачи перед этим удаляются deleteTasks в той же транзакции (ProjectDeletionService)
+    void deleteProjectRow(Long projectId);
+}
@@ -0,0 +1,85 @@
+package com.taskmanager.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ProjectRepositoryImpl implements ProjectRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public long countTasks(Long projectId) {
+        return entityManager.createQuery("SELECT COUNT(t) FROM Task t WHERE t.project.id = :projectId", Long.class)
+                .setParameter("projectId", projectId)
+                .getSingleResult();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> findTaskIds(Long projectId, int limit) {
+        List<Number> ids = entityManager.createNativeQuery("SELECT id FROM tasks WHERE project_id = :projectId ORDER BY id LIMIT :limit")
+                .setParameter("projectId", projectId)
+                .setParameter("limit", limit)
+                .getResultList();
+        return ids.stream().map(Number::longValue).toList();
+    }
+
+    @Override
+    public int deleteTasks(List<Long> taskIds, LocalDateTime deletedAt) {
+        if (taskIds.isEmpty()) {
+            return 0;
+        }
+        nativeUpdate("INSERT INTO task_tombstones (task_id, project_id, deleted_at) "
+                + "SELECT id, project_id, :deletedAt FROM tasks WHERE id IN (:ids)", "task_tombstones")
+                .setParameter("deletedAt", deletedAt)
+                .setParameter("ids", taskIds)
+                .executeUpdate();
+        nativeUpdate("DELETE FROM comments WHERE task_id IN (:ids)", "comments")
+                .setParameter("ids", taskIds)
+                .executeUpdate();
+        return nativeUpdate("DELETE FROM tasks WHERE id IN (:ids)", "tasks")
+                .setParameter("ids", taskIds)
+                .executeUpdate();
+    }
+
+    @Override
+    public boolean claimDeletion(Long projectId, String instanceId, LocalDateTime now, LocalDateTime expiredBefore) {
+        return nativeUpdate("UPDATE projects SET deletion_claimed_by = :instanceId, deletion_claimed_at = :now "
+                + "WHERE id = :projectId AND deleted_at IS NOT NULL AND (deletion_claimed_by IS NULL "
+                + "OR deletion_claimed_by = :instanceId OR deletion_claimed_at < :expiredBefore)", "projects")
+                .setParameter("instanceId", instanceId)
+                .setParameter("now", now)
+                .setParameter("projectId", projectId)
+                .setParameter("expiredBefore", expiredBefore)
+                .executeUpdate() == 1;
+    }
+
+    @Override
+    public void lockProjectRow(Long projectId) {
+        entityManager.createNativeQuery("SELECT id FROM projects WHERE id = :projectId FOR UPDATE")
+                .setParameter("projectId", projectId)
+                .getResultList();
+    }
+
+    @Override
+    public void deleteProjectRow(Long projectId) {
+        nativeUpdate("DELETE FROM project_members WHERE project_id = :projectId", "project_members")
+                .setParameter("projectId", projectId)
+                .executeUpdate();
+        nativeUpdate("DELETE FROM projects WHERE id = :projectId", "projects")
+                .setParameter("projectId", projectId)
+                .executeUpdate();
+    }
+
+    // Без указания затронутой таблицы Hibernate после нативного DML сбрасывает весь кэш второго уровня,
+    // с ней — только регионы сущностей и коллекций, отображенных на эту таблицу
+    private NativeQuery<?> nativeUpdate(String sql, String affectedTable) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(affectedTable);
+    }
+}
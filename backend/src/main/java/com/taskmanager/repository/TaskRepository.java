@@ -1,19 +1,51 @@
 package com.taskmanager.repository;
 
+import com.taskmanager.dto.TaskDto;
 import com.taskmanager.model.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
     Optional<Task> findByKey(String key);
     List<Task> findByProjectId(Long projectId);
     List<Task> findByProjectIdIn(List<Long> projectIds);
     List<Task> findByAssigneeId(Long assigneeId);
     List<Task> findByReporterId(Long reporterId);
     List<Task> findByProjectIdAndStatus(Long projectId, Task.TaskStatus status);
+
+    @Query(TASK_DTO_SELECT + " WHERE t.id = :id AND p.deletedAt IS NULL")
+    Optional<TaskDto> findDtoById(@Param("id") Long id);
+
+    // Для ETag: проект (проверка доступа) и версия вместо загрузки задачи со связями; строка — [projectId, version]
+    @Query("SELECT p.id, t.version FROM Task t JOIN t.project p WHERE t.id = :id AND p.deletedAt IS NULL")
+    List<Object[]> findProjectIdAndVersionById(@Param("id") Long id);
+
+    @Query("SELECT p.id FROM Task t JOIN t.project p WHERE t.id = :id AND p.deletedAt IS NULL")
+    Optional<Long> findProjectIdById(@Param("id") Long id);
+
+    @Query(TASK_DTO_SELECT + " WHERE t.id IN :ids AND p.deletedAt IS NULL")
+    List<TaskDto> findDtoByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Счетчик комментариев меняется одним UPDATE без чтения задачи. Версия и updatedAt тоже растут:
+    // число комментариев входит в TaskDto, значит ETag и GET /tasks/changes должны его заметить
+    @Modifying
+    @Query("UPDATE Task t SET t.commentCount = t.commentCount + :delta, t.version = t.version + 1, " +
+            "t.updatedAt = :updatedAt WHERE t.id = :id")
+    int adjustCommentCount(@Param("id") Long id, @Param("delta") int delta, @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Счетчики для сводки по проекту: одна строка на сочетание статус/приоритет/тип/исполнитель
+    @Query("SELECT t.status, t.priority, t.type, a.id, a.username, COUNT(t) FROM Task t " +
+            "LEFT JOIN t.assignee a WHERE t.project.id = :projectId " +
+            "GROUP BY t.status, t.priority, t.type, a.id, a.username")
+    List<Object[]> countByProjectGrouped(@Param("projectId") Long projectId);
 }
 
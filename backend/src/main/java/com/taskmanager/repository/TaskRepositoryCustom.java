@@ -0,0 +1,40 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.dto.TaskDto;
+import com.taskmanager.dto.TaskFilter;
+import com.taskmanager.util.KeysetCursor;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface TaskRepositoryCustom {
+    // TaskDto собирается прямо в запросе: проект, автор и исполнитель подтягиваются join'ами,
+    // без ленивой загрузки сущностей на каждую задачу
+    String TASK_DTO_SELECT = "SELECT new com.taskmanager.dto.TaskDto("
+            + "t.id, t.title, t.description, t.key, t.type, t.status, t.priority, "
+            + "p.id, p.name, r.id, r.username, a.id, a.username, t.createdAt, t.updatedAt, t.version, t.commentCount) "
+            + "FROM Task t JOIN t.project p JOIN t.reporter r LEFT JOIN t.assignee a";
+
+    List<TaskDto> findDtoPage(TaskFilter filter, KeysetCursor after, int limit);
+
+    // Состояние той же страницы, что вернет findDtoPage, — основа ETag'а (TaskService.getTasksETag):
+    // id и version задач страницы и время изменения проекта и пользователей, чьи имена входят в TaskDto.
+    // Читает не больше limit узких строк по тому же индексу; новая, измененная или удаленная задача
+    // меняет состав или версии строк страницы, поэтому отметки удалений не нужны
+    String findPageVersion(TaskFilter filter, KeysetCursor after, int limit);
+
+    // Задачи, измененные строго после after и раньше before, по возрастанию (updatedAt, id); after == null — с начала
+    List<TaskDto> findDtoChangedBetween(TaskFilter filter, KeysetCursor after, LocalDateTime before, int limit);
+
+    // Текущее время по часам БД (в часовом поясе сессии, который драйвер берет из JVM) — водяной знак
+    // синхронизации не должен зависеть от расхождения часов между инстансами
+    LocalDateTime findDatabaseNow();
+
+    // Потоковое чтение для выгрузки; вызывать внутри транзакции и закрывать поток
+    Stream<TaskDto> streamDtos(TaskFilter filter, int fetchSize);
+
+    // id задач, подходящих под поисковый запрос, в порядке убывания релевантности
+    List<Long> searchIds(String query, Collection<Long> projectIds, int offset, int limit);
+}
@@ -0,0 +1,201 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.dto.TaskDto;
+import com.taskmanager.dto.TaskFilter;
+import com.taskmanager.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+    // Ранжированный поиск по tsvector-колонкам (см. 013-add-task-full-text-search),
+    // совпадения в комментариях весят вдвое меньше совпадений в самой задаче
+    private static final String FULL_TEXT_SEARCH_SQL = """
+            SELECT m.task_id, SUM(m.rank) AS score
+            FROM (
+                SELECT t.id AS task_id, ts_rank(t.search_vector, websearch_to_tsquery('simple', :query)) AS rank
+                FROM tasks t
+                WHERE t.project_id IN (:projectIds)
+                  AND t.search_vector @@ websearch_to_tsquery('simple', :query)
+                UNION ALL
+                SELECT c.task_id, 0.5 * ts_rank(c.search_vector, websearch_to_tsquery('simple', :query))
+                FROM comments c
+                JOIN tasks t ON t.id = c.task_id
+                WHERE t.project_id IN (:projectIds)
+                  AND c.search_vector @@ websearch_to_tsquery('simple', :query)
+            ) m
+            GROUP BY m.task_id
+            ORDER BY score DESC, m.task_id DESC
+            LIMIT :limit OFFSET :offset
+            """;
+
+    // Запасной вариант для СУБД без полнотекстового поиска (H2): LIKE, совпадения в заголовке выше
+    private static final String LIKE_SEARCH_JPQL = "SELECT t.id FROM Task t "
+            + "WHERE t.project.id IN :projectIds AND ("
+            + "LOWER(t.title) LIKE :pattern ESCAPE '\\' "
+            + "OR LOWER(t.description) LIKE :pattern ESCAPE '\\' "
+            + "OR EXISTS (SELECT 1 FROM Comment c WHERE c.task = t AND LOWER(c.content) LIKE :pattern ESCAPE '\\')) "
+            + "ORDER BY CASE WHEN LOWER(t.title) LIKE :pattern ESCAPE '\\' THEN 0 ELSE 1 END, t.updatedAt DESC, t.id DESC";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile Boolean fullTextSupported;
+
+    @Override
+    public List<TaskDto> findDtoPage(TaskFilter filter, KeysetCursor after, int limit) {
+        return pageQuery(TASK_DTO_SELECT, TaskDto.class, filter, after, limit).getResultList();
+    }
+
+    @Override
+    public String findPageVersion(TaskFilter filter, KeysetCursor after, int limit) {
+        List<Object[]> rows = pageQuery("SELECT t.id, t.version, p.updatedAt, r.updatedAt, a.updatedAt "
+                + "FROM Task t JOIN t.project p JOIN t.reporter r LEFT JOIN t.assignee a", Object[].class, filter, after, limit)
+                .getResultList();
+        StringBuilder version = new StringBuilder();
+        for (Object[] row : rows) {
+            version.append(Arrays.toString(row)).append(';');
+        }
+        return version.toString();
+    }
+
+    // Keyset: следующая страница начинается строго после (updatedAt, id) последней записи
+    private <T> TypedQuery<T> pageQuery(String select, Class<T> type, TaskFilter filter, KeysetCursor after, int limit) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+        addFilterConditions(filter, conditions, params);
+        if (after != null) {
+            conditions.add("(t.updatedAt < :cursorUpdatedAt OR (t.updatedAt = :cursorUpdatedAt AND t.id < :cursorId))");
+            params.put("cursorUpdatedAt", after.timestamp());
+            params.put("cursorId", after.id());
+        }
+
+        String jpql = select + " WHERE " + String.join(" AND ", conditions) + " ORDER BY t.updatedAt DESC, t.id DESC";
+        TypedQuery<T> query = entityManager.createQuery(jpql, type);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit);
+    }
+
+    @Override
+    public List<TaskDto> findDtoChangedBetween(TaskFilter filter, KeysetCursor after, LocalDateTime before, int limit) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+        addFilterConditions(filter, conditions, params);
+
+        if (after != null) {
+            conditions.add("(t.updatedAt > :afterUpdatedAt OR (t.updatedAt = :afterUpdatedAt AND t.id > :afterId))");
+            params.put("afterUpdatedAt", after.timestamp());
+            params.put("afterId", after.id());
+        }
+        conditions.add("t.updatedAt < :before");
+        params.put("before", before);
+
+        String jpql = TASK_DTO_SELECT + " WHERE " + String.join(" AND ", conditions) + " ORDER BY t.updatedAt, t.id";
+        TypedQuery<TaskDto> query = entityManager.createQuery(jpql, TaskDto.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public LocalDateTime findDatabaseNow() {
+        return entityManager.createQuery("SELECT LOCAL DATETIME", LocalDateTime.class).getSingleResult();
+    }
+
+    @Override
+    public Stream<TaskDto> streamDtos(TaskFilter filter, int fetchSize) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>();
+        addFilterConditions(filter, conditions, params);
+
+        StringBuilder jpql = new StringBuilder(TASK_DTO_SELECT);
+        jpql.append(" WHERE ").append(String.join(" AND ", conditions));
+        jpql.append(" ORDER BY t.id");
+
+        // Forward-only курсор: драйвер держит в памяти не больше fetchSize строк
+        // (PostgreSQL отдает их порциями только внутри транзакции)
+        TypedQuery<TaskDto> query = entityManager.createQuery(jpql.toString(), TaskDto.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        params.forEach(query::setParameter);
+        return query.getResultStream();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> searchIds(String query, Collection<Long> projectIds, int offset, int limit) {
+        if (isFullTextSupported()) {
+            List<Object[]> rows = entityManager.createNativeQuery(FULL_TEXT_SEARCH_SQL)
+                    .setParameter("query", query)
+                    .setParameter("projectIds", projectIds)
+                    .setParameter("limit", limit)
+                    .setParameter("offset", offset)
+                    .getResultList();
+            return rows.stream().map(row -> ((Number) row[0]).longValue()).toList();
+        }
+
+        String pattern = "%" + query.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return entityManager.createQuery(LIKE_SEARCH_JPQL, Long.class)
+                .setParameter("projectIds", projectIds)
+                .setParameter("pattern", pattern)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private void addFilterConditions(TaskFilter filter, List<String> conditions, Map<String, Object> params) {
+        // Задачи проектов, которые сейчас удаляются в фоне, уже не видны
+        conditions.add("p.deletedAt IS NULL");
+        if (filter == null) {
+            return;
+        }
+        if (filter.getProjectIds() != null) {
+            if (filter.getProjectIds().isEmpty()) {
+                conditions.add("1 = 0"); // нет доступных проектов, см. ProjectAccessIndex.restrict
+            } else {
+                conditions.add("p.id IN :projectIds");
+                params.put("projectIds", filter.getProjectIds());
+            }
+        }
+        if (filter.getAssigneeId() != null) {
+            conditions.add("a.id = :assigneeId");
+            params.put("assigneeId", filter.getAssigneeId());
+        }
+        if (filter.getStatus() != null) {
+            conditions.add("t.status = :status");
+            params.put("status", filter.getStatus());
+        }
+        if (filter.getPriority() != null) {
+            conditions.add("t.priority = :priority");
+            params.put("priority", filter.getPriority());
+        }
+        if (filter.getType() != null) {
+            conditions.add("t.type = :type");
+            params.put("type", filter.getType());
+        }
+    }
+
+    private boolean isFullTextSupported() {
+        if (fullTextSupported == null) {
+            fullTextSupported = entityManager.getEntityManagerFactory()
+                    .unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices()
+                    .getDialect() instanceof PostgreSQLDialect;
+        }
+        return fullTextSupported;
+    }
+}
@@ -0,0 +1,40 @@
+package com.taskmanager.repository;
+
+import com.taskmanager.model.TaskTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+    // Keyset по (deletedAt, taskId) в диапазоне [после курсора, before)
+    @Query("SELECT tt FROM TaskTombstone tt " +
+            "WHERE (tt.deletedAt > :afterDeletedAt OR (tt.deletedAt = :afterDeletedAt AND tt.taskId > :afterTaskId)) " +
+            "AND tt.deletedAt < :before ORDER BY tt.deletedAt, tt.taskId")
+    List<TaskTombstone> findPage(@Param("afterDeletedAt") LocalDateTime afterDeletedAt,
+                                 @Param("afterTaskId") Long afterTaskId,
+                                 @Param("before") LocalDateTime before,
+                                 Limit limit);
+
+    @Query("SELECT tt FROM TaskTombstone tt " +
+            "WHERE tt.projectId IN :projectIds " +
+            "AND (tt.deletedAt > :afterDeletedAt OR (tt.deletedAt = :afterDeletedAt AND tt.taskId > :afterTaskId)) " +
+            "AND tt.deletedAt < :before ORDER BY tt.deletedAt, tt.taskId")
+    List<TaskTombstone> findPageByProjectIdIn(@Param("projectIds") Collection<Long> projectIds,
+                                              @Param("afterDeletedAt") LocalDateTime afterDeletedAt,
+                                              @Param("afterTaskId") Long afterTaskId,
+                                              @Param("before") LocalDateTime before,
+                                              Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM TaskTombstone tt WHERE tt.deletedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
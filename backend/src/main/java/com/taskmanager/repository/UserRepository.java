@@ -1,17 +1,66 @@
 package com.taskmanager.repository;
 
+import com.taskmanager.dto.UserSummaryDto;
 import com.taskmanager.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Без кэша запросов: его инвалидация локальна для инстанса, а смена роли или email на другом
+    // инстансе должна быть видна сразу. Повторные обращения за текущим пользователем гасит кэш
+    // UserDetails (taskmanager.principal-cache)
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     Optional<User> findByOauth2ProviderAndOauth2Id(String provider, String oauth2Id);
+
+    // Только id и username, без загрузки сущностей (сопоставление имен при импорте)
+    @Query("SELECT u.id, u.username FROM User u")
+    List<Object[]> findAllIdsAndUsernames();
+
+    // Какие из переданных id существуют (проверка при добавлении участников проекта)
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Поиск по префиксу (см. 018-add-user-search-indexes). Ранг: точное совпадение username,
+    // префикс username, префикс имени или фамилии, префикс email; внутри ранга — по username.
+    // По email ищет только администратор (см. UserSearchService): иначе адреса можно подобрать по символу
+    String SEARCH_FROM = "SELECT new com.taskmanager.dto.UserSummaryDto(u.id, u.username, u.firstName, u.lastName) "
+            + "FROM User u WHERE (LOWER(u.username) LIKE :pattern ESCAPE '\\' "
+            + "OR LOWER(u.firstName) LIKE :pattern ESCAPE '\\' "
+            + "OR LOWER(u.lastName) LIKE :pattern ESCAPE '\\'";
+    String SEARCH_SELECT = SEARCH_FROM + ")";
+    String SEARCH_SELECT_WITH_EMAIL = SEARCH_FROM + " OR LOWER(u.email) LIKE :pattern ESCAPE '\\')";
+    String SEARCH_ORDER = " ORDER BY CASE WHEN LOWER(u.username) = :prefix THEN 0 "
+            + "WHEN LOWER(u.username) LIKE :pattern ESCAPE '\\' THEN 1 "
+            + "WHEN LOWER(u.firstName) LIKE :pattern ESCAPE '\\' OR LOWER(u.lastName) LIKE :pattern ESCAPE '\\' THEN 2 "
+            + "ELSE 3 END, u.username";
+
+    @Query(SEARCH_SELECT + SEARCH_ORDER)
+    List<UserSummaryDto> searchByPrefix(@Param("prefix") String prefix, @Param("pattern") String pattern, Limit limit);
+
+    @Query(SEARCH_SELECT + " AND u.id IN :ids" + SEARCH_ORDER)
+    List<UserSummaryDto> searchByPrefixAndIdIn(@Param("prefix") String prefix, @Param("pattern") String pattern,
+                                               @Param("ids") Collection<Long> ids, Limit limit);
+
+    @Query(SEARCH_SELECT_WITH_EMAIL + SEARCH_ORDER)
+    List<UserSummaryDto> searchByPrefixOrEmail(@Param("prefix") String prefix, @Param("pattern") String pattern, Limit limit);
+
+    @Query(SEARCH_SELECT_WITH_EMAIL + " AND u.id IN :ids" + SEARCH_ORDER)
+    List<UserSummaryDto> searchByPrefixOrEmailAndIdIn(@Param("prefix") String prefix, @Param("pattern") String pattern,
+                                                      @Param("ids") Collection<Long> ids, Limit limit);
+
+    // Все пользователи для префиксного индекса в памяти (UserSearchService), без загрузки сущностей
+    @Query("SELECT u.id, u.username, u.email, u.firstName, u.lastName FROM User u")
+    List<Object[]> findAllSearchEntries();
 }
 
@@ -32,7 +32,7 @@ public class AuthService {
 
         user = userRepository.save(user);
 
-        String token = jwtUtil.generateToken(user.getUsername());
+        String token = jwtUtil.generateToken(user.getId(), user.getUsername(), user.getRole().name());
         return new AuthResponse(token, user.getUsername(), user.getEmail(), user.getRole().name(), user.getId());
     }
 
@@ -44,7 +44,7 @@ public class AuthService {
             throw new RuntimeException("Invalid password");
         }
 
-        String token = jwtUtil.generateToken(user.getUsername());
+        String token = jwtUtil.generateToken(user.getId(), user.getUsername(), user.getRole().name());
         return new AuthResponse(token, user.getUsername(), user.getEmail(), user.getRole().name(), user.getId());
     }
 }
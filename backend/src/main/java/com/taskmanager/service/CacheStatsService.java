@@ -0,0 +1,74 @@
+package com.taskmanager.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.taskmanager.config.CachedUserDetailsService;
+import com.taskmanager.util.JwtUtil;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Сводная статистика кэшей для подбора размеров регионов в продакшене
+@Service
+@RequiredArgsConstructor
+public class CacheStatsService {
+    private final EntityManagerFactory entityManagerFactory;
+    private final JwtUtil jwtUtil;
+    private final CachedUserDetailsService userDetailsService;
+
+    public Map<String, Object> getStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) continue;
+            Map<String, Object> regionStats = new LinkedHashMap<>();
+            regionStats.put("hits", region.getHitCount());
+            regionStats.put("misses", region.getMissCount());
+            regionStats.put("puts", region.getPutCount());
+            regionStats.put("hitRatio", ratio(region.getHitCount(), region.getMissCount()));
+            regionStats.put("size", region.getElementCountInMemory());
+            regions.put(regionName, regionStats);
+        }
+
+        Map<String, Object> queryCache = new LinkedHashMap<>();
+        queryCache.put("hits", statistics.getQueryCacheHitCount());
+        queryCache.put("misses", statistics.getQueryCacheMissCount());
+        queryCache.put("puts", statistics.getQueryCachePutCount());
+        queryCache.put("hitRatio", ratio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()));
+
+        Map<String, Object> secondLevel = new LinkedHashMap<>();
+        secondLevel.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        secondLevel.put("hits", statistics.getSecondLevelCacheHitCount());
+        secondLevel.put("misses", statistics.getSecondLevelCacheMissCount());
+        secondLevel.put("puts", statistics.getSecondLevelCachePutCount());
+        secondLevel.put("regions", regions);
+        secondLevel.put("queryCache", queryCache);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("hibernate", secondLevel);
+        result.put("jwtClaims", toMap(jwtUtil.getCacheStats()));
+        result.put("userDetails", toMap(userDetailsService.getCacheStats()));
+        return result;
+    }
+
+    private static Map<String, Object> toMap(CacheStats stats) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("hits", stats.hitCount());
+        map.put("misses", stats.missCount());
+        map.put("hitRatio", stats.hitRate());
+        map.put("evictions", stats.evictionCount());
+        return map;
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,140 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dto.CommentDto;
+import com.taskmanager.dto.CursorPageDto;
+import com.taskmanager.event.TaskChangedEvent;
+import com.taskmanager.model.Comment;
+import com.taskmanager.model.User;
+import com.taskmanager.repository.CommentRepository;
+import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.util.KeysetCursor;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@Timed("taskmanager.service")
+@RequiredArgsConstructor
+public class CommentService {
+    private final CommentRepository commentRepository;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProjectAccessIndex projectAccessIndex;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    @Transactional(readOnly = true)
+    public CursorPageDto<CommentDto> getComments(Long taskId, String cursor, Integer limit) {
+        int pageSize = limit != null ? Math.max(1, Math.min(limit, MAX_PAGE_SIZE)) : DEFAULT_PAGE_SIZE;
+        checkTaskAccess(taskId);
+
+        // На одну запись больше — чтобы понять, есть ли следующая страница
+        List<CommentDto> comments;
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            comments = commentRepository.findDtoPageAfter(taskId, after.timestamp(), after.id(), Limit.of(pageSize + 1));
+        } else {
+            comments = commentRepository.findDtoPage(taskId, Limit.of(pageSize + 1));
+        }
+        String nextCursor = null;
+        if (comments.size() > pageSize) {
+            comments = comments.subList(0, pageSize);
+            CommentDto last = comments.get(pageSize - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPageDto<>(comments, nextCursor);
+    }
+
+    @Transactional
+    public CommentDto addComment(Long taskId, CommentDto commentDto, String username) {
+        String content = requireContent(commentDto);
+        checkTaskAccess(taskId);
+        User author = findUser(username);
+        // UPDATE счетчика заодно проверяет, что задача существует, и блокирует ее строку до коммита
+        if (taskRepository.adjustCommentCount(taskId, 1, LocalDateTime.now()) == 0) {
+            throw new RuntimeException("Task not found");
+        }
+
+        Comment comment = new Comment();
+        comment.setContent(content);
+        comment.setTask(taskRepository.getReferenceById(taskId));
+        comment.setAuthor(author);
+        comment = commentRepository.save(comment);
+
+        publishTaskUpdated(taskId);
+        return toDto(comment, taskId, author);
+    }
+
+    @Transactional
+    public CommentDto updateComment(Long taskId, Long commentId, CommentDto commentDto, String username) {
+        String content = requireContent(commentDto);
+        checkTaskAccess(taskId);
+        Comment comment = findComment(taskId, commentId);
+        User author = requireAuthor(comment, username);
+        comment.setContent(content);
+        comment = commentRepository.saveAndFlush(comment);
+        return toDto(comment, taskId, author);
+    }
+
+    @Transactional
+    public void deleteComment(Long taskId, Long commentId, String username) {
+        checkTaskAccess(taskId);
+        Comment comment = findComment(taskId, commentId);
+        requireAuthor(comment, username);
+        commentRepository.delete(comment);
+        taskRepository.adjustCommentCount(taskId, -1, LocalDateTime.now());
+        publishTaskUpdated(taskId);
+    }
+
+    // Счетчик комментариев входит в TaskDto: ETag'и, SSE и сводка должны узнать об изменении
+    private void publishTaskUpdated(Long taskId) {
+        taskRepository.findDtoById(taskId).ifPresent(task -> eventPublisher.publishEvent(
+                new TaskChangedEvent(TaskChangedEvent.Type.UPDATED, task.getProjectId(), task.getId(), task)));
+    }
+
+    private void checkTaskAccess(Long taskId) {
+        Long projectId = taskRepository.findProjectIdById(taskId)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+        projectAccessIndex.checkAccess(projectId);
+    }
+
+    private Comment findComment(Long taskId, Long commentId) {
+        return commentRepository.findByIdAndTaskId(commentId, taskId)
+                .orElseThrow(() -> new RuntimeException("Comment not found"));
+    }
+
+    // Изменять и удалять комментарий может только его автор; id автора берется без загрузки связи
+    private User requireAuthor(Comment comment, String username) {
+        User user = findUser(username);
+        if (!user.getId().equals(comment.getAuthor().getId())) {
+            throw new RuntimeException("Only the author can modify the comment");
+        }
+        return user;
+    }
+
+    private User findUser(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    private static String requireContent(CommentDto commentDto) {
+        if (commentDto == null || commentDto.getContent() == null || commentDto.getContent().isBlank()) {
+            throw new RuntimeException("Comment content is required");
+        }
+        return commentDto.getContent();
+    }
+
+    private static CommentDto toDto(Comment comment, Long taskId, User author) {
+        return new CommentDto(comment.getId(), comment.getContent(), taskId, author.getId(), author.getUsername(),
+                comment.getCreatedAt(), comment.getUpdatedAt());
+    }
+}
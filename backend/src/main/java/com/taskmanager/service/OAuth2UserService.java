@@ -162,7 +162,7 @@ public class OAuth2UserService extends DefaultOAuth2UserService {
     }
 
     public String generateJwtToken(User user) {
-        return jwtUtil.generateToken(user.getUsername());
+        return jwtUtil.generateToken(user.getId(), user.getUsername(), user.getRole().name());
     }
 
     public String generateJwtTokenFromOAuth2User(OAuth2User oauth2User, String provider) {
@@ -172,7 +172,7 @@ public class OAuth2UserService extends DefaultOAuth2UserService {
         User user = userRepository.findByOauth2ProviderAndOauth2Id(provider, oauth2Id)
                 .orElseThrow(() -> new RuntimeException("User not found after OAuth2 authentication"));
         
-        return jwtUtil.generateToken(user.getUsername());
+        return jwtUtil.generateToken(user.getId(), user.getUsername(), user.getRole().name());
     }
 
     public User getUserFromOAuth2(OAuth2User oauth2User, String provider) {
@@ -0,0 +1,257 @@
+package com.taskmanager.service;
+
+import com.taskmanager.config.AuthenticatedUser;
+import com.taskmanager.dto.TaskFilter;
+import com.taskmanager.event.ProjectChangedEvent;
+import com.taskmanager.exception.ForbiddenException;
+import com.taskmanager.repository.ProjectRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Индекс доступа к проектам в памяти: userId -> отсортированный long[] id проектов, где он владелец или участник.
+// Проверка доступа — бинарный поиск по массиву пользователя, без запросов к БД и без упаковки в Long.
+// Массивы неизменяемые и заменяются целиком, поэтому чтение идет без блокировок.
+// Индекс — единственный источник ответа о доступе. Обновляется после коммита изменения проекта на этом
+// инстансе; изменения с других инстансов подхватывает сверка версий проектов раз в poll-interval-ms —
+// это и есть граница отставания. Полная перезагрузка по расписанию — страховка.
+@Slf4j
+@Component
+public class ProjectAccessIndex {
+    private static final long[] NONE = new long[0];
+
+    private final ProjectRepository projectRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Object writeLock = new Object();
+
+    private volatile Map<Long, long[]> projectsByUser = new ConcurrentHashMap<>();
+    private volatile Map<Long, ProjectAcl> aclByProject = new ConcurrentHashMap<>();
+
+    public ProjectAccessIndex(ProjectRepository projectRepository, PlatformTransactionManager transactionManager) {
+        this.projectRepository = projectRepository;
+        // Не readOnly: читаем из основной БД, реплика может еще не видеть только что закоммиченное изменение
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void init() {
+        reload();
+    }
+
+    @Scheduled(initialDelayString = "${taskmanager.project-access.reload-interval-ms:300000}",
+            fixedDelayString = "${taskmanager.project-access.reload-interval-ms:300000}")
+    public void reload() {
+        synchronized (writeLock) {
+            Map<Long, ProjectAcl> acls = new HashMap<>();
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Object[] row : projectRepository.findAllOwnerIds()) {
+                    acls.put((Long) row[0], new ProjectAcl((Long) row[1], NONE, (Long) row[2]));
+                }
+                Map<Long, List<Long>> members = new HashMap<>();
+                for (Object[] row : projectRepository.findAllMemberIds()) {
+                    members.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Long) row[1]);
+                }
+                members.forEach((projectId, userIds) -> acls.computeIfPresent(projectId,
+                        (id, acl) -> new ProjectAcl(acl.ownerId(), toSortedArray(userIds), acl.version())));
+            });
+
+            Map<Long, List<Long>> byUser = new HashMap<>();
+            acls.forEach((projectId, acl) -> {
+                for (long userId : acl.userIds()) {
+                    byUser.computeIfAbsent(userId, id -> new ArrayList<>()).add(projectId);
+                }
+            });
+            Map<Long, long[]> users = new ConcurrentHashMap<>();
+            byUser.forEach((userId, projectIds) -> users.put(userId, toSortedArray(projectIds)));
+
+            aclByProject = new ConcurrentHashMap<>(acls);
+            projectsByUser = users;
+            log.debug("ProjectAccessIndex - Loaded {} projects for {} users", acls.size(), users.size());
+        }
+    }
+
+    // Изменения с других инстансов: одна узкая выборка (id, version) по всем проектам, перечитываются
+    // только новые, измененные и исчезнувшие. Отставание индекса ограничено интервалом сверки
+    @Scheduled(initialDelayString = "${taskmanager.project-access.poll-interval-ms:2000}",
+            fixedDelayString = "${taskmanager.project-access.poll-interval-ms:2000}")
+    public void poll() {
+        List<Object[]> versions = transactionTemplate.execute(status -> projectRepository.findAllVersions());
+        Set<Long> stale = new HashSet<>(aclByProject.keySet());
+        for (Object[] row : versions) {
+            Long projectId = (Long) row[0];
+            ProjectAcl acl = aclByProject.get(projectId);
+            if (acl != null && acl.version().equals(row[1])) {
+                stale.remove(projectId);
+            } else {
+                stale.add(projectId);
+            }
+        }
+        stale.forEach(this::refreshProject);
+    }
+
+    // Создание, изменение, удаление проекта и смена участников
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        refreshProject(event.projectId());
+    }
+
+    public void refreshProject(Long projectId) {
+        synchronized (writeLock) {
+            ProjectAcl updated = transactionTemplate.execute(status -> {
+                List<Object[]> owner = projectRepository.findOwnerIdAndVersionById(projectId);
+                if (owner.isEmpty()) {
+                    return null;
+                }
+                return new ProjectAcl((Long) owner.get(0)[0],
+                        toSortedArray(projectRepository.findMemberIdsById(projectId)), (Long) owner.get(0)[1]);
+            });
+            ProjectAcl previous = updated != null ? aclByProject.put(projectId, updated) : aclByProject.remove(projectId);
+
+            long[] before = previous != null ? previous.userIds() : NONE;
+            long[] after = updated != null ? updated.userIds() : NONE;
+            for (long userId : before) {
+                if (!contains(after, userId)) {
+                    projectsByUser.computeIfPresent(userId, (id, projects) -> without(projects, projectId));
+                }
+            }
+            for (long userId : after) {
+                if (!contains(before, userId)) {
+                    projectsByUser.merge(userId, new long[]{projectId}, (projects, added) -> with(projects, projectId));
+                }
+            }
+        }
+    }
+
+    public boolean canAccess(Long userId, Long projectId) {
+        return contains(projectsByUser.getOrDefault(userId, NONE), projectId);
+    }
+
+    public boolean isOwner(Long userId, Long projectId) {
+        ProjectAcl acl = aclByProject.get(projectId);
+        return acl != null && acl.ownerId().equals(userId);
+    }
+
+    // Владелец и участники проекта по возрастанию id; пустой массив, если проекта нет
+    public long[] userIdsOf(Long projectId) {
+        ProjectAcl acl = aclByProject.get(projectId);
+        return acl != null ? acl.userIds() : NONE;
+    }
+
+    // Проекты, где пользователь владелец или участник, по возрастанию id
+    public List<Long> projectIdsOf(Long userId) {
+        return Arrays.stream(projectsByUser.getOrDefault(userId, NONE)).boxed().toList();
+    }
+
+    // Проверки для текущего запроса. Администратор имеет доступ ко всем проектам
+
+    public void checkAccess(Long projectId) {
+        AuthenticatedUser user = currentUser();
+        if (!user.isAdmin() && !canAccess(user.getId(), projectId)) {
+            throw new ForbiddenException("Access to project denied");
+        }
+    }
+
+    public void checkOwner(Long projectId) {
+        AuthenticatedUser user = currentUser();
+        if (!user.isAdmin() && !isOwner(user.getId(), projectId)) {
+            throw new ForbiddenException("Only the project owner can do this");
+        }
+    }
+
+    // Владелец уже известен вызывающему — для проектов, отмеченных удаленными и выпавших из индекса
+    public void checkOwnerId(Long ownerId) {
+        AuthenticatedUser user = currentUser();
+        if (!user.isAdmin() && !user.getId().equals(ownerId)) {
+            throw new ForbiddenException("Only the project owner can do this");
+        }
+    }
+
+    public boolean canAccess(Long projectId) {
+        AuthenticatedUser user = currentUser();
+        return user.isAdmin() || canAccess(user.getId(), projectId);
+    }
+
+    // Фильтр списка задач: без projectIds — все доступные проекты, с ними — только если все доступны.
+    // В возвращенном фильтре пустой projectIds означает, что доступных проектов нет
+    public TaskFilter restrict(TaskFilter filter) {
+        AuthenticatedUser user = currentUser();
+        boolean unfiltered = filter.getProjectIds() == null || filter.getProjectIds().isEmpty();
+        if (user.isAdmin()) {
+            return unfiltered ? new TaskFilter(null, filter.getAssigneeId(), filter.getStatus(),
+                    filter.getPriority(), filter.getType()) : filter;
+        }
+        if (unfiltered) {
+            return new TaskFilter(projectIdsOf(user.getId()), filter.getAssigneeId(), filter.getStatus(),
+                    filter.getPriority(), filter.getType());
+        }
+        for (Long projectId : filter.getProjectIds()) {
+            if (!canAccess(user.getId(), projectId)) {
+                throw new ForbiddenException("Access to project denied");
+            }
+        }
+        return filter;
+    }
+
+    public AuthenticatedUser currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
+            throw new ForbiddenException("Access denied");
+        }
+        return user;
+    }
+
+    private static boolean contains(long[] sorted, long value) {
+        return Arrays.binarySearch(sorted, value) >= 0;
+    }
+
+    private static long[] with(long[] sorted, long value) {
+        int index = Arrays.binarySearch(sorted, value);
+        if (index >= 0) {
+            return sorted;
+        }
+        int insertAt = -index - 1;
+        long[] result = new long[sorted.length + 1];
+        System.arraycopy(sorted, 0, result, 0, insertAt);
+        result[insertAt] = value;
+        System.arraycopy(sorted, insertAt, result, insertAt + 1, sorted.length - insertAt);
+        return result;
+    }
+
+    private static long[] without(long[] sorted, long value) {
+        int index = Arrays.binarySearch(sorted, value);
+        if (index < 0) {
+            return sorted;
+        }
+        long[] result = new long[sorted.length - 1];
+        System.arraycopy(sorted, 0, result, 0, index);
+        System.arraycopy(sorted, index + 1, result, index, sorted.length - index - 1);
+        return result;
+    }
+
+    private static long[] toSortedArray(List<Long> values) {
+        return values.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+    }
+
+    // Владелец и участники проекта; userIds — все, у кого есть доступ, отсортированы
+    // version — версия проекта, по которой poll находит изменения с других инстансов
+    private record ProjectAcl(Long ownerId, long[] memberIds, Long version) {
+        long[] userIds() {
+            return with(memberIds, ownerId);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dto.ProjectDeletionStatus;
+import com.taskmanager.event.ProjectDeletedEvent;
+import com.taskmanager.repository.ProjectRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Фоновое удаление проектов, отмеченных deleted_at.
+// Задачи с комментариями удаляются порциями по chunk-size, каждая порция — отдельная короткая транзакция
+// из трех множественных DELETE/INSERT без загрузки сущностей. Последней удаляется строка проекта.
+// Порции идемпотентны: прерванное удаление (рестарт, ошибка) продолжит следующий обход sweep.
+// sweep идет на всех инстансах, поэтому проект вычищает только захвативший его инстанс (deletion_claimed_by,
+// см. 019-add-project-deletion-claim); захват продлевается в транзакции каждой порции.
+@Slf4j
+@Service
+public class ProjectDeletionService {
+    private static final long FINISHED_STATUS_TTL_MS = 3_600_000;
+
+    private final ProjectRepository projectRepository;
+    private final ProjectAccessIndex projectAccessIndex;
+    private final TaskKeyAllocator taskKeyAllocator;
+    private final TaskEventStream taskEventStream;
+    private final TransactionTemplate transactionTemplate;
+    // Один поток: удаления идут друг за другом и не конкурируют с запросами за пул соединений
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "project-deletion");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<Long, Progress> progress = new ConcurrentHashMap<>();
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${taskmanager.project-deletion.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${taskmanager.project-deletion.claim-ttl-ms:300000}")
+    private long claimTtlMs;
+
+    public ProjectDeletionService(ProjectRepository projectRepository,
+                                  ProjectAccessIndex projectAccessIndex,
+                                  TaskKeyAllocator taskKeyAllocator,
+                                  TaskEventStream taskEventStream,
+                                  PlatformTransactionManager transactionManager) {
+        this.projectRepository = projectRepository;
+        this.projectAccessIndex = projectAccessIndex;
+        this.taskKeyAllocator = taskKeyAllocator;
+        this.taskEventStream = taskEventStream;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @TransactionalEventListener
+    public void onProjectDeleted(ProjectDeletedEvent event) {
+        schedule(event.projectId());
+    }
+
+    // Подбирает удаления, начатые до рестарта или прерванные ошибкой
+    @Scheduled(fixedDelayString = "${taskmanager.project-deletion.sweep-interval-ms:60000}")
+    public void sweep() {
+        projectRepository.findDeletedIds().forEach(this::schedule);
+        // Статус завершенного удаления доступен еще час
+        long expired = System.currentTimeMillis() - FINISHED_STATUS_TTL_MS;
+        progress.values().removeIf(p -> p.finished && p.finishedAt < expired);
+    }
+
+    // Только владельцу и администратору. Удаленного проекта в ProjectAccessIndex уже нет: владелец берется
+    // из строки проекта, а после ее удаления — из прогресса
+    public ProjectDeletionStatus getStatus(Long projectId) {
+        Progress current = progress.get(projectId);
+        Long ownerId = projectRepository.findDeletedOwnerIdById(projectId)
+                .orElse(current != null ? current.ownerId : null);
+        if (ownerId == null) {
+            projectAccessIndex.checkAccess(projectId);
+            throw new RuntimeException(projectRepository.existsById(projectId)
+                    ? "Project is not being deleted" : "Project not found");
+        }
+        projectAccessIndex.checkOwnerId(ownerId);
+        if (current != null) {
+            return current.snapshot();
+        }
+        // Отмечен удаленным, но этот инстанс его еще не обрабатывал
+        return new ProjectDeletionStatus(projectId, false, null, 0, 0, null);
+    }
+
+    private void schedule(Long projectId) {
+        Progress fresh = new Progress(projectId);
+        Progress existing = progress.putIfAbsent(projectId, fresh);
+        if (existing != null) {
+            if (existing.finished || !existing.retry()) {
+                return; // уже удален или удаляется сейчас
+            }
+        }
+        executor.execute(() -> purge(progress.get(projectId)));
+    }
+
+    private void purge(Progress current) {
+        Long projectId = current.projectId;
+        try {
+            if (current.ownerId == null) {
+                current.ownerId = projectRepository.findDeletedOwnerIdById(projectId).orElse(null);
+            }
+            if (!Boolean.TRUE.equals(transactionTemplate.execute(status -> claim(projectId)))) {
+                release(current); // вычищает другой инстанс
+                return;
+            }
+            if (current.totalTasks == null) {
+                current.totalTasks = projectRepository.countTasks(projectId);
+            }
+            while (true) {
+                Integer deleted = transactionTemplate.execute(status -> {
+                    if (!claim(projectId)) {
+                        return null;
+                    }
+                    List<Long> taskIds = projectRepository.findTaskIds(projectId, chunkSize);
+                    return projectRepository.deleteTasks(taskIds, LocalDateTime.now());
+                });
+                if (deleted == null) {
+                    log.warn("ProjectDeletionService - Claim on project {} expired, another instance took over", projectId);
+                    release(current);
+                    return;
+                }
+                if (deleted == 0) {
+                    break;
+                }
+                current.deletedTasks += deleted;
+            }
+            // Последний проход в одной транзакции со строкой проекта: задачи, созданные во время удаления,
+            // тоже получают отметки для синхронизации, а не уходят каскадом молча. Строка проекта заблокирована,
+            // поэтому новые задачи до коммита не появятся, а после него не пройдут внешний ключ
+            Integer lastDeleted = transactionTemplate.execute(status -> {
+                if (!claim(projectId)) {
+                    return null;
+                }
+                projectRepository.lockProjectRow(projectId);
+                int deleted = 0;
+                List<Long> taskIds;
+                while (!(taskIds = projectRepository.findTaskIds(projectId, chunkSize)).isEmpty()) {
+                    deleted += projectRepository.deleteTasks(taskIds, LocalDateTime.now());
+                }
+                projectRepository.deleteProjectRow(projectId);
+                return deleted;
+            });
+            if (lastDeleted == null) {
+                release(current);
+                return;
+            }
+            current.deletedTasks += lastDeleted;
+            taskKeyAllocator.forget(projectId);
+            taskEventStream.closeProject(projectId);
+            current.finishedAt = System.currentTimeMillis();
+            current.finished = true;
+            log.info("ProjectDeletionService - Project {} deleted: {} tasks in {} ms",
+                    projectId, current.deletedTasks, current.snapshot().getDurationMs());
+        } catch (RuntimeException e) {
+            current.error = e.getMessage();
+            current.running = false;
+            log.warn("ProjectDeletionService - Deletion of project {} failed, will retry: {}", projectId, e.getMessage());
+        }
+    }
+
+    // Захват или продление захвата в текущей транзакции
+    private boolean claim(Long projectId) {
+        LocalDateTime now = LocalDateTime.now();
+        return projectRepository.claimDeletion(projectId, instanceId, now, now.minus(claimTtlMs, ChronoUnit.MILLIS));
+    }
+
+    // Проект вычищает другой инстанс: здесь его прогресс не ведем, следующий sweep попробует снова
+    private void release(Progress current) {
+        current.running = false;
+        progress.remove(current.projectId, current);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Пишет только поток удаления, читает /deletion — значений volatile достаточно
+    private static final class Progress {
+        private final Long projectId;
+        private final long startedAt = System.currentTimeMillis();
+        private volatile Long ownerId;
+        private volatile Long totalTasks;
+        private volatile long deletedTasks;
+        private volatile boolean running = true;
+        private volatile boolean finished;
+        private volatile long finishedAt;
+        private volatile String error;
+
+        Progress(Long projectId) {
+            this.projectId = projectId;
+        }
+
+        // Повтор после ошибки: true, если этот вызов забрал удаление себе
+        synchronized boolean retry() {
+            if (running) {
+                return false;
+            }
+            running = true;
+            return true;
+        }
+
+        ProjectDeletionStatus snapshot() {
+            long end = finished ? finishedAt : System.currentTimeMillis();
+            return new ProjectDeletionStatus(projectId, finished, totalTasks, deletedTasks, end - startedAt, error);
+        }
+    }
+}
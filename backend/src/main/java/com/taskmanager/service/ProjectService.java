@@ -1,33 +1,82 @@
 package com.taskmanager.service;
 
 import com.taskmanager.dto.ProjectDto;
+import com.taskmanager.event.ProjectChangedEvent;
+import com.taskmanager.event.ProjectDeletedEvent;
 import com.taskmanager.model.Project;
 import com.taskmanager.model.User;
 import com.taskmanager.repository.ProjectRepository;
 import com.taskmanager.repository.UserRepository;
+import com.taskmanager.util.ETags;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("taskmanager.service") // время каждого публичного метода, теги class и method
 @RequiredArgsConstructor
 public class ProjectService {
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProjectAccessIndex projectAccessIndex;
 
+    @Transactional(readOnly = true) // при настроенной реплике читается из нее
     public List<ProjectDto> getAllProjects(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         List<Project> projects = projectRepository.findByOwnerIdOrMembersId(user.getId());
-        return projects.stream().map(this::toDto).collect(Collectors.toList());
+        if (projects.isEmpty()) {
+            return List.of();
+        }
+        // Участники всех проектов одним запросом вместо ленивой загрузки коллекции на каждый проект
+        Map<Long, List<Long>> memberIds = new HashMap<>();
+        for (Object[] row : projectRepository.findMemberIdsByIdIn(projects.stream().map(Project::getId).toList())) {
+            memberIds.computeIfAbsent((Long) row[0], projectId -> new ArrayList<>()).add((Long) row[1]);
+        }
+        return projects.stream()
+                .map(project -> toDto(project, memberIds.getOrDefault(project.getId(), List.of())))
+                .collect(Collectors.toList());
     }
 
+    // ETag списка проектов пользователя по агрегатам из БД — одинаков на всех инстансах
+    @Transactional(readOnly = true)
+    public String getProjectsETag(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        Object[] version = projectRepository.findListingVersionByUserId(user.getId()).get(0);
+        return ETags.forCollection(username, Arrays.toString(version));
+    }
+
+    // ETag проекта по id + version; null, если проекта нет
+    public String getProjectETag(Long id) {
+        Long version = projectRepository.findVersionById(id).orElse(null);
+        if (version == null) {
+            return null;
+        }
+        projectAccessIndex.checkAccess(id);
+        return ETags.forProject(id, version);
+    }
+
+    @Transactional(readOnly = true)
     public ProjectDto getProjectById(Long id) {
-        Project project = projectRepository.findById(id)
+        Project project = projectRepository.findActiveById(id)
                 .orElseThrow(() -> new RuntimeException("Project not found"));
+        projectAccessIndex.checkAccess(id);
         return toDto(project);
     }
 
@@ -42,29 +91,90 @@ public class ProjectService {
         project.setKey(projectDto.getKey().toUpperCase());
         project.setOwner(owner);
 
-        project = projectRepository.save(project);
-        return toDto(project);
+        project = projectRepository.saveAndFlush(project);
+        eventPublisher.publishEvent(new ProjectChangedEvent(project.getId()));
+        return toDto(project, List.of());
     }
 
     @Transactional
     public ProjectDto updateProject(Long id, ProjectDto projectDto) {
-        Project project = projectRepository.findById(id)
+        Project project = projectRepository.findActiveById(id)
                 .orElseThrow(() -> new RuntimeException("Project not found"));
+        projectAccessIndex.checkOwner(id);
+
+        if (projectDto.getVersion() != null && !projectDto.getVersion().equals(project.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Project.class, id);
+        }
 
         if (projectDto.getName() != null) project.setName(projectDto.getName());
         if (projectDto.getDescription() != null) project.setDescription(projectDto.getDescription());
         if (projectDto.getKey() != null) project.setKey(projectDto.getKey().toUpperCase());
 
-        project = projectRepository.save(project);
+        // flush, чтобы в ответ попали актуальные updatedAt и version (он же ETag)
+        project = projectRepository.saveAndFlush(project);
+        eventPublisher.publishEvent(new ProjectChangedEvent(project.getId()));
         return toDto(project);
     }
 
+    // Проект только отмечается удаленным и сразу пропадает из API; задачи, комментарии и участников
+    // после коммита порциями удаляет ProjectDeletionService
     @Transactional
     public void deleteProject(Long id) {
-        projectRepository.deleteById(id);
+        Project project = projectRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Project not found"));
+        // До проверки на повторное удаление: иначе ответ выдавал бы чужим, что проект существует
+        projectAccessIndex.checkOwnerId(project.getOwner().getId());
+        if (project.isDeleted()) {
+            return; // удаление уже идет
+        }
+        project.setDeletedAt(LocalDateTime.now());
+        projectRepository.saveAndFlush(project);
+        eventPublisher.publishEvent(new ProjectChangedEvent(id));
+        eventPublisher.publishEvent(new ProjectDeletedEvent(id));
+    }
+
+    // Участниками управляет только владелец. Меняются лишь строки project_members для переданных id;
+    // version проекта растет, так что ETag и кэши проекта обновляются, а ProjectAccessIndex — по событию
+    @Transactional
+    public ProjectDto addMembers(Long id, Collection<Long> userIds) {
+        Project project = projectRepository.findActiveById(id)
+                .orElseThrow(() -> new RuntimeException("Project not found"));
+        projectAccessIndex.checkOwner(id);
+
+        Set<Long> requested = new HashSet<>(userIds);
+        requested.remove(project.getOwner().getId()); // владелец имеет доступ и без членства
+        if (requested.isEmpty()) {
+            return toDto(project);
+        }
+        List<Long> existing = userRepository.findExistingIds(requested);
+        if (existing.size() != requested.size()) {
+            requested.removeAll(existing);
+            throw new RuntimeException("Users not found: " + requested);
+        }
+        return saveMembers(project, project.getMemberIds().addAll(requested));
+    }
+
+    @Transactional
+    public ProjectDto removeMembers(Long id, Collection<Long> userIds) {
+        Project project = projectRepository.findActiveById(id)
+                .orElseThrow(() -> new RuntimeException("Project not found"));
+        projectAccessIndex.checkOwner(id);
+        return saveMembers(project, project.getMemberIds().removeAll(new HashSet<>(userIds)));
+    }
+
+    private ProjectDto saveMembers(Project project, boolean changed) {
+        if (changed) {
+            project = projectRepository.saveAndFlush(project);
+            eventPublisher.publishEvent(new ProjectChangedEvent(project.getId()));
+        }
+        return toDto(project, new ArrayList<>(project.getMemberIds()));
     }
 
     private ProjectDto toDto(Project project) {
+        return toDto(project, projectRepository.findMemberIdsById(project.getId()));
+    }
+
+    private ProjectDto toDto(Project project, List<Long> memberIds) {
         ProjectDto dto = new ProjectDto();
         dto.setId(project.getId());
         dto.setName(project.getName());
@@ -72,9 +182,10 @@ public class ProjectService {
         dto.setKey(project.getKey());
         dto.setOwnerId(project.getOwner().getId());
         dto.setOwnerUsername(project.getOwner().getUsername());
-        dto.setMemberIds(project.getMembers().stream().map(User::getId).collect(Collectors.toList()));
+        dto.setMemberIds(memberIds);
         dto.setCreatedAt(project.getCreatedAt());
         dto.setUpdatedAt(project.getUpdatedAt());
+        dto.setVersion(project.getVersion());
         return dto;
     }
 }
@@ -0,0 +1,103 @@
+package com.taskmanager.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.taskmanager.dto.ProjectSummaryDto;
+import com.taskmanager.event.ProjectChangedEvent;
+import com.taskmanager.event.TaskChangedEvent;
+import com.taskmanager.model.Task;
+import com.taskmanager.repository.ProjectRepository;
+import com.taskmanager.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Счетчики задач проекта для шапки доски. Считаются одним GROUP BY без выборки строк
+// и кэшируются до первого изменения задач проекта.
+@Service
+public class ProjectSummaryService {
+    private final TaskRepository taskRepository;
+    private final ProjectRepository projectRepository;
+    private final ProjectAccessIndex projectAccessIndex;
+    private final Cache<Long, ProjectSummaryDto> cache;
+
+    public ProjectSummaryService(TaskRepository taskRepository,
+                                 ProjectRepository projectRepository,
+                                 ProjectAccessIndex projectAccessIndex,
+                                 @Value("${taskmanager.summary-cache.ttl:10m}") Duration ttl,
+                                 @Value("${taskmanager.summary-cache.max-size:10000}") long maxSize) {
+        this.taskRepository = taskRepository;
+        this.projectRepository = projectRepository;
+        this.projectAccessIndex = projectAccessIndex;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    public ProjectSummaryDto getSummary(Long projectId) {
+        projectAccessIndex.checkAccess(projectId);
+        return cache.get(projectId, this::loadSummary);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        cache.invalidate(event.projectId());
+    }
+
+    // Удаление проекта, массовый импорт задач
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        cache.invalidate(event.projectId());
+    }
+
+    // Для метрик (MetricsConfig)
+    public Cache<?, ?> getCache() {
+        return cache;
+    }
+
+    private ProjectSummaryDto loadSummary(Long projectId) {
+        if (projectRepository.findActiveById(projectId).isEmpty()) {
+            throw new RuntimeException("Project not found");
+        }
+
+        Map<Task.TaskStatus, Long> byStatus = zeroCounts(Task.TaskStatus.class);
+        Map<Task.Priority, Long> byPriority = zeroCounts(Task.Priority.class);
+        Map<Task.TaskType, Long> byType = zeroCounts(Task.TaskType.class);
+        Map<Long, ProjectSummaryDto.AssigneeCount> byAssignee = new LinkedHashMap<>();
+        long total = 0;
+
+        // Строка: status, priority, type, assigneeId, assigneeUsername, count
+        for (Object[] row : taskRepository.countByProjectGrouped(projectId)) {
+            long count = ((Number) row[5]).longValue();
+            total += count;
+            if (row[0] != null) byStatus.merge((Task.TaskStatus) row[0], count, Long::sum);
+            if (row[1] != null) byPriority.merge((Task.Priority) row[1], count, Long::sum);
+            if (row[2] != null) byType.merge((Task.TaskType) row[2], count, Long::sum);
+            Long assigneeId = (Long) row[3];
+            ProjectSummaryDto.AssigneeCount assignee = byAssignee.computeIfAbsent(assigneeId,
+                    id -> new ProjectSummaryDto.AssigneeCount(id, (String) row[4], 0));
+            assignee.setCount(assignee.getCount() + count);
+        }
+
+        List<ProjectSummaryDto.AssigneeCount> assignees = new ArrayList<>(byAssignee.values());
+        assignees.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
+        return new ProjectSummaryDto(projectId, total, byStatus, byPriority, byType, assignees);
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> zeroCounts(Class<E> type) {
+        Map<E, Long> counts = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            counts.put(value, 0L);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,34 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dto.TaskDto;
+import com.taskmanager.model.Task;
+import org.springframework.stereotype.Component;
+
+// Task -> TaskDto для загруженных сущностей (создание и изменение задач);
+// списки читаются сразу DTO-проекцией, см. TaskRepositoryCustom.TASK_DTO_SELECT
+@Component
+public class TaskDtoMapper {
+    public TaskDto toDto(Task task) {
+        TaskDto dto = new TaskDto();
+        dto.setId(task.getId());
+        dto.setTitle(task.getTitle());
+        dto.setDescription(task.getDescription());
+        dto.setKey(task.getKey());
+        dto.setType(task.getType());
+        dto.setStatus(task.getStatus());
+        dto.setPriority(task.getPriority());
+        dto.setProjectId(task.getProject().getId());
+        dto.setProjectName(task.getProject().getName());
+        dto.setReporterId(task.getReporter().getId());
+        dto.setReporterUsername(task.getReporter().getUsername());
+        if (task.getAssignee() != null) {
+            dto.setAssigneeId(task.getAssignee().getId());
+            dto.setAssigneeUsername(task.getAssignee().getUsername());
+        }
+        dto.setCreatedAt(task.getCreatedAt());
+        dto.setUpdatedAt(task.getUpdatedAt());
+        dto.setVersion(task.getVersion());
+        dto.setCommentCount(task.getCommentCount());
+        return dto;
+    }
+}
@@ -0,0 +1,313 @@
+package com.taskmanager.service;
+
+import com.taskmanager.event.ProjectChangedEvent;
+import com.taskmanager.event.TaskChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// SSE-поток изменений задач по проектам.
+// У каждого подписчика ограниченная очередь: если клиент не успевает читать, очередь сбрасывается
+// и ему отправляется событие resync (перезагрузить состояние целиком).
+// Последние события проекта хранятся в кольцевом буфере для переподключения с Last-Event-ID.
+// Канал проекта создается только подпиской; после ухода последнего подписчика он живет еще
+// idle-channel-ttl-ms (чтобы переподключение получило пропущенное) и затем удаляется вместе с историей.
+@Slf4j
+@Component
+public class TaskEventStream {
+    private static final long NO_REPLAY = -1;
+    private static final long FORCE_RESYNC = -2;
+    private static final StreamEvent HEARTBEAT = new StreamEvent(0, null, null);
+
+    // id событий имеют вид "<streamId>-<seq>", после рестарта сервера старые id ведут к resync
+    private final String streamId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, ProjectChannel> channels = new ConcurrentHashMap<>();
+    private final ExecutorService dispatcher;
+
+    // На Java 21 с spring.threads.virtual.enabled отправка идет в виртуальных потоках:
+    // поток, заблокированный записью в медленный сокет, не занимает поток платформы.
+    // Иначе — ограниченный пул: если все потоки заняты медленными клиентами и очередь полна,
+    // задача отклоняется, а подписчик получает resync, когда пул освободится (см. schedule)
+    public TaskEventStream(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                           @Value("${taskmanager.events.dispatcher-threads:32}") int dispatcherThreads,
+                           @Value("${taskmanager.events.dispatcher-queue-size:1000}") int dispatcherQueueSize) {
+        if (virtualThreads && Runtime.version().feature() >= 21) {
+            this.dispatcher = newVirtualThreadExecutor();
+        } else {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(dispatcherThreads, dispatcherThreads,
+                    60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(dispatcherQueueSize),
+                    new CustomizableThreadFactory("sse-dispatch-"), new ThreadPoolExecutor.AbortPolicy());
+            pool.allowCoreThreadTimeOut(true);
+            this.dispatcher = pool;
+        }
+    }
+
+    @Value("${taskmanager.events.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${taskmanager.events.replay-size:1000}")
+    private int replaySize;
+
+    @Value("${taskmanager.events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${taskmanager.events.idle-channel-ttl-ms:120000}")
+    private long idleChannelTtlMs;
+
+    public SseEmitter subscribe(Long projectId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(projectId, emitter, bufferSize);
+        long lastSequence = parseSequence(lastEventId);
+        // Подписка внутри compute: удаление простаивающего канала (evictIdleChannels) не может
+        // произойти между получением канала и добавлением подписчика
+        ProjectChannel channel = channels.compute(projectId, (id, existing) -> {
+            ProjectChannel target = existing != null ? existing : new ProjectChannel();
+            target.subscribe(subscriber, lastSequence);
+            return target;
+        });
+
+        emitter.onCompletion(() -> channel.unsubscribe(subscriber));
+        emitter.onTimeout(() -> {
+            channel.unsubscribe(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(e -> channel.unsubscribe(subscriber));
+
+        schedule(subscriber);
+        return emitter;
+    }
+
+    // История копится только у проектов, на которые кто-то подписан (или был подписан недавно)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        ProjectChannel channel = channels.get(event.projectId());
+        if (channel != null) {
+            channel.publish(event.type().name().toLowerCase(), event);
+        }
+    }
+
+    // Изменения проекта целиком (переименование, массовый импорт): клиенты перезагружают доску
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectChanged(ProjectChangedEvent event) {
+        ProjectChannel channel = channels.get(event.projectId());
+        if (channel != null) {
+            channel.invalidate();
+        }
+    }
+
+    @Scheduled(fixedRateString = "${taskmanager.events.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        for (ProjectChannel channel : channels.values()) {
+            for (Subscriber subscriber : channel.subscribers) {
+                subscriber.enqueue(HEARTBEAT);
+                schedule(subscriber);
+            }
+        }
+        evictIdleChannels();
+    }
+
+    private void evictIdleChannels() {
+        long now = System.currentTimeMillis();
+        for (Long projectId : channels.keySet()) {
+            channels.computeIfPresent(projectId, (id, channel) -> channel.isIdle(now, idleChannelTtlMs) ? null : channel);
+        }
+    }
+
+    public void closeProject(Long projectId) {
+        ProjectChannel channel = channels.remove(projectId);
+        if (channel != null) {
+            channel.subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        dispatcher.shutdownNow();
+    }
+
+    // Код собирается и под Java 17, поэтому фабрика виртуальных потоков берется через reflection
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads are not available", e);
+        }
+    }
+
+    private long parseSequence(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return NO_REPLAY;
+        }
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(streamId)) {
+            return FORCE_RESYNC;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return FORCE_RESYNC;
+        }
+    }
+
+    private String eventId(long seq) {
+        return streamId + "-" + seq;
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.closed && subscriber.draining.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                // Пул занят: события не копим, клиент получит resync со следующей попыткой (heartbeat)
+                subscriber.queue.clear();
+                subscriber.overflow.set(true);
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    // Отправка идет в отдельном потоке, чтобы медленный клиент не задерживал коммит задачи
+    private void drain(Subscriber subscriber) {
+        try {
+            while (!subscriber.closed) {
+                if (subscriber.overflow.getAndSet(false)) {
+                    subscriber.queue.clear();
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(eventId(sequence.get()))
+                            .name("resync")
+                            .data("{}"));
+                    continue;
+                }
+                StreamEvent event = subscriber.queue.poll();
+                if (event == null) {
+                    break;
+                }
+                if (event == HEARTBEAT) {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(eventId(event.sequence()))
+                            .name(event.name())
+                            .data(event.data()));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("SSE subscriber for project {} disconnected: {}", subscriber.projectId, e.getMessage());
+            subscriber.closed = true;
+            ProjectChannel channel = channels.get(subscriber.projectId);
+            if (channel != null) {
+                channel.unsubscribe(subscriber);
+            }
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // Пока выходили из цикла, могли прийти новые события
+        if (!subscriber.queue.isEmpty() || subscriber.overflow.get()) {
+            schedule(subscriber);
+        }
+    }
+
+    private record StreamEvent(long sequence, String name, Object data) {
+    }
+
+    private final class ProjectChannel {
+        private final Deque<StreamEvent> history = new ArrayDeque<>();
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        // Последний seq, вытесненный из истории. У нового канала — текущий seq: события до его создания
+        // не сохранялись, и переподключение с более старым Last-Event-ID получает resync
+        private long evictedUpTo = sequence.get();
+        private volatile long idleSince = System.currentTimeMillis();
+
+        synchronized void publish(String name, Object data) {
+            StreamEvent event = new StreamEvent(sequence.incrementAndGet(), name, data);
+            history.addLast(event);
+            if (history.size() > replaySize) {
+                evictedUpTo = history.removeFirst().sequence();
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.enqueue(event);
+                schedule(subscriber);
+            }
+        }
+
+        // Подписка и replay под тем же монитором, что и publish, — события не теряются и не переставляются
+        synchronized void subscribe(Subscriber subscriber, long lastSequence) {
+            if (lastSequence == FORCE_RESYNC || (lastSequence >= 0 && lastSequence < evictedUpTo)) {
+                subscriber.overflow.set(true);
+            } else if (lastSequence >= 0) {
+                for (StreamEvent event : history) {
+                    if (event.sequence() > lastSequence) {
+                        subscriber.enqueue(event);
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        }
+
+        // Все подписчики получают resync, переподключение с прежним Last-Event-ID — тоже
+        synchronized void invalidate() {
+            history.clear();
+            evictedUpTo = sequence.incrementAndGet();
+            for (Subscriber subscriber : subscribers) {
+                subscriber.overflow.set(true);
+                schedule(subscriber);
+            }
+        }
+
+        synchronized void unsubscribe(Subscriber subscriber) {
+            subscriber.closed = true;
+            if (subscribers.remove(subscriber) && subscribers.isEmpty()) {
+                idleSince = System.currentTimeMillis();
+            }
+        }
+
+        synchronized boolean isIdle(long now, long ttlMs) {
+            return subscribers.isEmpty() && now - idleSince >= ttlMs;
+        }
+    }
+
+    private static final class Subscriber {
+        private final Long projectId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<StreamEvent> queue;
+        private final AtomicBoolean overflow = new AtomicBoolean();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(Long projectId, SseEmitter emitter, int bufferSize) {
+            this.projectId = projectId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void enqueue(StreamEvent event) {
+            if (!queue.offer(event)) {
+                overflow.set(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.taskmanager.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.dto.TaskDto;
+import com.taskmanager.dto.TaskFilter;
+import com.taskmanager.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Выгрузка задач в NDJSON/CSV: строки читаются курсором и сразу пишутся в ответ,
+// в памяти одновременно не больше fetch-size записей
+@Slf4j
+@Service
+public class TaskExportService {
+    private static final int FLUSH_EVERY = 1000;
+    private static final String CSV_HEADER = "id,key,title,description,type,status,priority,projectId,projectName,"
+            + "reporterId,reporterUsername,assigneeId,assigneeUsername,createdAt,updatedAt,version,commentCount";
+
+    private final TaskRepository taskRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+
+    public TaskExportService(TaskRepository taskRepository,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${taskmanager.export.fetch-size:500}") int fetchSize) {
+        this.taskRepository = taskRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    // Вызывается из StreamingResponseBody, т.е. уже вне потока и транзакции запроса
+    public void export(TaskFilter filter, TaskFileFormat format, OutputStream out) {
+        long started = System.currentTimeMillis();
+        Long written = readOnlyTransaction.execute(status -> {
+            try (Stream<TaskDto> tasks = taskRepository.streamDtos(filter, fetchSize)) {
+                return format == TaskFileFormat.CSV ? writeCsv(tasks.iterator(), out) : writeNdjson(tasks.iterator(), out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("TaskExportService.export - {} tasks exported as {} in {} ms", written, format, System.currentTimeMillis() - started);
+    }
+
+    private long writeNdjson(Iterator<TaskDto> tasks, OutputStream out) throws IOException {
+        long count = 0;
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+        while (tasks.hasNext()) {
+            objectMapper.writeValue(generator, tasks.next());
+            if (++count % FLUSH_EVERY == 0) {
+                generator.flush();
+            }
+        }
+        if (count > 0) {
+            generator.writeRaw('\n');
+        }
+        generator.close();
+        return count;
+    }
+
+    private long writeCsv(Iterator<TaskDto> tasks, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        while (tasks.hasNext()) {
+            TaskDto task = tasks.next();
+            writeCsvRow(writer, task.getId(), task.getKey(), task.getTitle(), task.getDescription(),
+                    task.getType(), task.getStatus(), task.getPriority(), task.getProjectId(), task.getProjectName(),
+                    task.getReporterId(), task.getReporterUsername(), task.getAssigneeId(), task.getAssigneeUsername(),
+                    task.getCreatedAt(), task.getUpdatedAt(), task.getVersion(), task.getCommentCount());
+            if (++count % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsvRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) writer.write(',');
+            if (values[i] != null) writer.write(escapeCsv(values[i].toString()));
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180: значения с запятой, кавычкой или переводом строки берем в кавычки
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
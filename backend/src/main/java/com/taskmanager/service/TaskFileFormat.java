@@ -0,0 +1,46 @@
+package com.taskmanager.service;
+
+import org.springframework.http.MediaType;
+
+// Форматы файловой выгрузки и загрузки задач
+public enum TaskFileFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    TaskFileFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static TaskFileFormat fromParam(String value) {
+        for (TaskFileFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new RuntimeException("Unsupported format: " + value);
+    }
+
+    public static TaskFileFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            for (TaskFileFormat format : values()) {
+                if (MediaType.parseMediaType(format.contentType).isCompatibleWith(mediaType)) {
+                    return format;
+                }
+            }
+        }
+        throw new RuntimeException("Unsupported content type: " + contentType);
+    }
+}
@@ -0,0 +1,333 @@
+package com.taskmanager.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.dto.TaskImportResult;
+import com.taskmanager.dto.TaskImportRow;
+import com.taskmanager.event.ProjectChangedEvent;
+import com.taskmanager.model.Project;
+import com.taskmanager.model.Task;
+import com.taskmanager.model.User;
+import com.taskmanager.repository.ProjectRepository;
+import com.taskmanager.repository.UserRepository;
+import com.taskmanager.util.CsvReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Массовый импорт задач в проект из CSV/NDJSON.
+// Файл читается потоком, имена пользователей сопоставляются с id по заранее загруженной карте,
+// задачи сохраняются порциями по chunk-size в отдельных транзакциях с JDBC-батчами.
+// Ошибка в строке не останавливает импорт — она попадает в отчет.
+@Slf4j
+@Service
+public class TaskImportService {
+    private final ProjectRepository projectRepository;
+    private final UserRepository userRepository;
+    private final TaskKeyAllocator taskKeyAllocator;
+    private final ProjectAccessIndex projectAccessIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, Progress> running = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${taskmanager.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${taskmanager.import.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+
+    @Value("${taskmanager.import.max-errors:1000}")
+    private int maxErrors;
+
+    public TaskImportService(ProjectRepository projectRepository,
+                             UserRepository userRepository,
+                             TaskKeyAllocator taskKeyAllocator,
+                             ProjectAccessIndex projectAccessIndex,
+                             ApplicationEventPublisher eventPublisher,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager) {
+        this.projectRepository = projectRepository;
+        this.userRepository = userRepository;
+        this.taskKeyAllocator = taskKeyAllocator;
+        this.projectAccessIndex = projectAccessIndex;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public TaskImportResult importTasks(Long projectId, TaskFileFormat format, InputStream in, String username) throws IOException {
+        Project project = projectRepository.findActiveById(projectId)
+                .orElseThrow(() -> new RuntimeException("Project not found"));
+        projectAccessIndex.checkAccess(projectId);
+        User currentUser = userRepository.findByUsername(username)
+                .or(() -> userRepository.findByEmail(username))
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        Progress progress = new Progress(projectId);
+        if (running.putIfAbsent(projectId, progress) != null) {
+            throw new RuntimeException("Import is already running for this project");
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            Map<String, Long> userIds = loadUserIds();
+            RowSource source = format == TaskFileFormat.CSV ? csvSource(reader) : ndjsonSource(reader);
+            List<PendingTask> chunk = new ArrayList<>(chunkSize);
+
+            while (true) {
+                TaskImportRow row;
+                long rowNumber = progress.processed + 1;
+                try {
+                    row = source.next();
+                } catch (JsonProcessingException e) {
+                    progress.processed++;
+                    progress.fail(rowNumber, "Invalid JSON: " + e.getOriginalMessage(), maxErrors);
+                    continue;
+                } catch (IOException e) {
+                    // Разбор CSV дальше продолжить нельзя (например, незакрытая кавычка до конца файла):
+                    // строки до ошибки сохраняем, импорт завершается с ошибкой в отчете вместо 500
+                    progress.processed++;
+                    progress.fail(rowNumber, "Unreadable input: " + e.getMessage(), maxErrors);
+                    break;
+                }
+                if (row == null) {
+                    break;
+                }
+                progress.processed++;
+                try {
+                    chunk.add(toPendingTask(rowNumber, row, userIds, currentUser.getId()));
+                } catch (RuntimeException e) {
+                    progress.fail(rowNumber, e.getMessage(), maxErrors);
+                }
+                if (chunk.size() >= chunkSize) {
+                    saveChunk(project, chunk, progress);
+                    chunk.clear();
+                }
+            }
+            saveChunk(project, chunk, progress);
+        } finally {
+            progress.finished = true;
+            running.remove(projectId);
+            // Задачи импортировались без событий на каждую строку — один сигнал для кэшей и SSE-клиентов
+            if (progress.imported > 0) {
+                eventPublisher.publishEvent(new ProjectChangedEvent(projectId));
+            }
+        }
+
+        TaskImportResult result = progress.snapshot();
+        log.info("TaskImportService.importTasks - Project {}: {} rows, {} imported, {} failed in {} ms",
+                projectId, result.getProcessed(), result.getImported(), result.getFailed(), result.getDurationMs());
+        return result;
+    }
+
+    public TaskImportResult getProgress(Long projectId) {
+        projectAccessIndex.checkAccess(projectId);
+        Progress progress = running.get(projectId);
+        if (progress == null) {
+            throw new RuntimeException("No import in progress for this project");
+        }
+        return progress.snapshot();
+    }
+
+    private void saveChunk(Project project, List<PendingTask> chunk, Progress progress) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            // Номера резервируются до транзакции порции (см. TaskKeyAllocator)
+            long[] numbers = new long[chunk.size()];
+            for (int i = 0; i < numbers.length; i++) {
+                numbers[i] = taskKeyAllocator.nextNumber(project.getId());
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+                // Ссылки вместо загрузки: проект и пользователи уже проверены
+                Project projectRef = entityManager.getReference(Project.class, project.getId());
+                for (int i = 0; i < chunk.size(); i++) {
+                    PendingTask pending = chunk.get(i);
+                    Task task = new Task();
+                    task.setTitle(pending.title());
+                    task.setDescription(pending.description());
+                    task.setType(pending.type());
+                    task.setStatus(pending.status());
+                    task.setPriority(pending.priority());
+                    task.setProject(projectRef);
+                    task.setReporter(entityManager.getReference(User.class, pending.reporterId()));
+                    if (pending.assigneeId() != null) {
+                        task.setAssignee(entityManager.getReference(User.class, pending.assigneeId()));
+                    }
+                    task.setKey(project.getKey() + "-" + numbers[i]);
+                    entityManager.persist(task);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            progress.imported += chunk.size();
+        } catch (RuntimeException e) {
+            log.warn("TaskImportService - Chunk of {} rows failed for project {}: {}", chunk.size(), project.getId(), e.getMessage());
+            for (PendingTask pending : chunk) {
+                progress.fail(pending.rowNumber(), "Chunk rolled back: " + e.getMessage(), maxErrors);
+            }
+        }
+    }
+
+    private PendingTask toPendingTask(long rowNumber, TaskImportRow row, Map<String, Long> userIds, Long currentUserId) {
+        if (row.getTitle() == null || row.getTitle().isBlank()) {
+            throw new RuntimeException("Title is required");
+        }
+        Long reporterId = currentUserId;
+        if (row.getReporter() != null && !row.getReporter().isBlank()) {
+            reporterId = userIds.get(row.getReporter().trim());
+            if (reporterId == null) throw new RuntimeException("Unknown reporter: " + row.getReporter());
+        }
+        Long assigneeId = null;
+        if (row.getAssignee() != null && !row.getAssignee().isBlank()) {
+            assigneeId = userIds.get(row.getAssignee().trim());
+            if (assigneeId == null) throw new RuntimeException("Unknown assignee: " + row.getAssignee());
+        }
+        return new PendingTask(rowNumber, row.getTitle().trim(), blankToNull(row.getDescription()),
+                parseEnum(Task.TaskType.class, row.getType(), Task.TaskType.TASK),
+                parseEnum(Task.TaskStatus.class, row.getStatus(), Task.TaskStatus.TODO),
+                parseEnum(Task.Priority.class, row.getPriority(), Task.Priority.MEDIUM),
+                reporterId, assigneeId);
+    }
+
+    private Map<String, Long> loadUserIds() {
+        Map<String, Long> userIds = new HashMap<>();
+        for (Object[] row : userRepository.findAllIdsAndUsernames()) {
+            userIds.put((String) row[1], (Long) row[0]);
+        }
+        return userIds;
+    }
+
+    private RowSource csvSource(BufferedReader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            return () -> null;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("title")) {
+            throw new RuntimeException("CSV header must contain a 'title' column");
+        }
+        return () -> {
+            List<String> record = csv.readRecord();
+            if (record == null) {
+                return null;
+            }
+            TaskImportRow row = new TaskImportRow();
+            row.setTitle(column(record, columns, "title"));
+            row.setDescription(column(record, columns, "description"));
+            row.setType(column(record, columns, "type"));
+            row.setStatus(column(record, columns, "status"));
+            row.setPriority(column(record, columns, "priority"));
+            row.setAssignee(column(record, columns, "assignee", "assigneeusername"));
+            row.setReporter(column(record, columns, "reporter", "reporterusername"));
+            return row;
+        };
+    }
+
+    private RowSource ndjsonSource(BufferedReader reader) {
+        return () -> {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+            return objectMapper.readValue(line, TaskImportRow.class);
+        };
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String... names) {
+        for (String name : names) {
+            Integer index = columns.get(name);
+            if (index != null && index < record.size()) {
+                return record.get(index);
+            }
+        }
+        return null;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, E defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid " + type.getSimpleName() + ": " + value);
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        TaskImportRow next() throws IOException;
+    }
+
+    private record PendingTask(long rowNumber, String title, String description, Task.TaskType type,
+                               Task.TaskStatus status, Task.Priority priority, Long reporterId, Long assigneeId) {
+    }
+
+    // Пишет только поток импорта, читает /import/progress — значений volatile достаточно
+    private static final class Progress {
+        private final Long projectId;
+        private final long startedAt = System.currentTimeMillis();
+        private final List<TaskImportResult.RowError> errors = new ArrayList<>();
+        private volatile long processed;
+        private volatile long imported;
+        private volatile long failed;
+        private volatile boolean finished;
+
+        Progress(Long projectId) {
+            this.projectId = projectId;
+        }
+
+        void fail(long rowNumber, String message, int maxErrors) {
+            failed++;
+            synchronized (errors) {
+                if (errors.size() < maxErrors) {
+                    errors.add(new TaskImportResult.RowError(rowNumber, message));
+                }
+            }
+        }
+
+        TaskImportResult snapshot() {
+            List<TaskImportResult.RowError> errorsCopy;
+            synchronized (errors) {
+                errorsCopy = new ArrayList<>(errors);
+            }
+            return new TaskImportResult(projectId, finished, processed, imported, failed,
+                    System.currentTimeMillis() - startedAt, errorsCopy);
+        }
+    }
+}
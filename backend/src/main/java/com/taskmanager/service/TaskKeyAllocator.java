@@ -0,0 +1,89 @@
+package com.taskmanager.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Выдает порядковые номера задач внутри проекта (PROJ-1, PROJ-2, ...).
+// Счетчик хранится в projects.next_task_number, но в БД ходим только за блоком из blockSize номеров,
+// а внутри блока номера раздаются через AtomicLong без блокировок.
+// Неиспользованный остаток блока теряется при рестарте — в номерах возможны пропуски, но не дубли.
+// Вызывать вне транзакции: иначе поток, ждущий пополнения блока, держит соединение открытой транзакции,
+// а пополняющему нужно еще одно — при всплеске созданий в одном проекте пул исчерпывается.
+@Component
+public class TaskKeyAllocator {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, Block> blocks = new ConcurrentHashMap<>();
+    private final Map<Long, ReentrantLock> refillLocks = new ConcurrentHashMap<>();
+
+    @Value("${taskmanager.task-key.block-size:50}")
+    private int blockSize;
+
+    public TaskKeyAllocator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Резервирование блока коммитится сразу, чтобы не держать блокировку строки проекта
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public long nextNumber(Long projectId) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Task numbers must be reserved outside of a transaction");
+        }
+        while (true) {
+            Block block = blocks.get(projectId);
+            if (block != null) {
+                long number = block.next.getAndIncrement();
+                if (number < block.end) {
+                    return number;
+                }
+            }
+            refill(projectId, block);
+        }
+    }
+
+    public void forget(Long projectId) {
+        blocks.remove(projectId);
+        refillLocks.remove(projectId);
+    }
+
+    private void refill(Long projectId, Block exhausted) {
+        ReentrantLock lock = refillLocks.computeIfAbsent(projectId, id -> new ReentrantLock());
+        lock.lock();
+        try {
+            // Пока ждали блокировку, блок мог уже пополнить другой поток
+            if (blocks.get(projectId) == exhausted) {
+                blocks.put(projectId, reserveBlock(projectId));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Block reserveBlock(Long projectId) {
+        Long end = transactionTemplate.execute(status -> {
+            int updated = jdbcTemplate.update(
+                    "UPDATE projects SET next_task_number = next_task_number + ? WHERE id = ?",
+                    blockSize, projectId);
+            if (updated == 0) {
+                throw new RuntimeException("Project not found");
+            }
+            return jdbcTemplate.queryForObject(
+                    "SELECT next_task_number FROM projects WHERE id = ?", Long.class, projectId);
+        });
+        return new Block(new AtomicLong(end - blockSize), end);
+    }
+
+    private record Block(AtomicLong next, long end) {
+    }
+}
@@ -1,53 +1,403 @@
 package com.taskmanager.service;
 
+import com.taskmanager.dto.CursorPageDto;
+import com.taskmanager.dto.TaskBatchRequest;
+import com.taskmanager.dto.TaskBatchResult;
 import com.taskmanager.dto.TaskDto;
+import com.taskmanager.dto.TaskFilter;
+import com.taskmanager.event.TaskChangedEvent;
+import com.taskmanager.exception.PreconditionFailedException;
 import com.taskmanager.model.Project;
 import com.taskmanager.model.Task;
 import com.taskmanager.model.User;
 import com.taskmanager.repository.ProjectRepository;
 import com.taskmanager.repository.TaskRepository;
 import com.taskmanager.repository.UserRepository;
+import com.taskmanager.util.ETags;
+import com.taskmanager.util.KeysetCursor;
+import com.taskmanager.util.OffsetCursor;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed("taskmanager.service") // время каждого публичного метода, теги class и method
 @RequiredArgsConstructor
 public class TaskService {
     private final TaskRepository taskRepository;
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
+    private final TaskKeyAllocator taskKeyAllocator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskSyncService taskSyncService;
+    private final ProjectAccessIndex projectAccessIndex;
+    private final TaskDtoMapper taskDtoMapper;
 
-    public List<TaskDto> getAllTasks(List<Long> projectIds, Long assigneeId) {
-        List<Task> tasks;
-        if (projectIds != null && !projectIds.isEmpty()) {
-            tasks = taskRepository.findByProjectIdIn(projectIds);
-        } else if (assigneeId != null) {
-            tasks = taskRepository.findByAssigneeId(assigneeId);
-        } else {
-            tasks = taskRepository.findAll();
+    @Value("${taskmanager.optimistic-lock.max-attempts:3}")
+    private int maxUpdateAttempts;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
+    @Transactional(readOnly = true) // при настроенной реплике читается из нее
+    public CursorPageDto<TaskDto> getAllTasks(TaskFilter filter, String cursor, Integer limit) {
+        int pageSize = limit != null ? Math.max(1, Math.min(limit, MAX_PAGE_SIZE)) : DEFAULT_PAGE_SIZE;
+        KeysetCursor after = cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor) : null;
+
+        // Запрашиваем на одну запись больше, чтобы понять, есть ли следующая страница
+        List<TaskDto> tasks = taskRepository.findDtoPage(filter, after, pageSize + 1);
+        String nextCursor = null;
+        if (tasks.size() > pageSize) {
+            tasks = tasks.subList(0, pageSize);
+            TaskDto last = tasks.get(pageSize - 1);
+            nextCursor = new KeysetCursor(last.getUpdatedAt(), last.getId()).encode();
         }
-        return tasks.stream().map(this::toDto).collect(Collectors.toList());
+        return new CursorPageDto<>(tasks, nextCursor);
     }
 
+    // ETag страницы задач: узкая выборка строк той же страницы вместо DTO. Считается из БД,
+    // поэтому совпадает на всех инстансах и после рестарта; стоимость ограничена размером страницы
+    @Transactional(readOnly = true)
+    public String getTasksETag(TaskFilter filter, String cursor, Integer limit) {
+        int pageSize = limit != null ? Math.max(1, Math.min(limit, MAX_PAGE_SIZE)) : DEFAULT_PAGE_SIZE;
+        KeysetCursor after = cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor) : null;
+        return ETags.forCollection(taskRepository.findPageVersion(filter, after, pageSize + 1), filter, cursor, limit);
+    }
+
+    // ETag задачи по id + version; null, если задачи нет
+    public String getTaskETag(Long id) {
+        List<Object[]> rows = taskRepository.findProjectIdAndVersionById(id);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        projectAccessIndex.checkAccess((Long) rows.get(0)[0]);
+        return ETags.forTask(id, (Long) rows.get(0)[1]);
+    }
+
+    // Полнотекстовый поиск в проектах, где пользователь владелец или участник
+    @Transactional(readOnly = true)
+    public CursorPageDto<TaskDto> searchTasks(String query, String cursor, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new RuntimeException("Search query is required");
+        }
+        int pageSize = limit != null ? Math.max(1, Math.min(limit, MAX_PAGE_SIZE)) : DEFAULT_PAGE_SIZE;
+        int offset = cursor != null && !cursor.isBlank() ? OffsetCursor.decode(cursor).offset() : 0;
+
+        // Проекты пользователя из индекса доступа вместо запроса с DISTINCT LEFT JOIN по участникам
+        List<Long> projectIds = projectAccessIndex.projectIdsOf(projectAccessIndex.currentUser().getId());
+        if (projectIds.isEmpty()) {
+            return new CursorPageDto<>(List.of(), null);
+        }
+
+        List<Long> ids = taskRepository.searchIds(query.trim(), projectIds, offset, pageSize + 1);
+        String nextCursor = null;
+        if (ids.size() > pageSize) {
+            ids = ids.subList(0, pageSize);
+            nextCursor = new OffsetCursor(offset + pageSize).encode();
+        }
+
+        // DTO загружаются одним запросом, порядок восстанавливаем по рангу
+        Map<Long, TaskDto> byId = taskRepository.findDtoByIdIn(ids).stream()
+                .collect(Collectors.toMap(TaskDto::getId, Function.identity()));
+        List<TaskDto> items = ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+        return new CursorPageDto<>(items, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
     public TaskDto getTaskById(Long id) {
+        TaskDto task = taskRepository.findDtoById(id)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+        projectAccessIndex.checkAccess(task.getProjectId());
+        return task;
+    }
+
+    // Номер задачи резервируется до начала транзакции: пополнение блока номеров не требует второго
+    // соединения, пока открытая транзакция держит первое (см. TaskKeyAllocator)
+    public TaskDto createTask(TaskDto taskDto, String username) {
+        if (taskDto.getProjectId() == null) {
+            throw new RuntimeException("Project not found");
+        }
+        projectAccessIndex.checkAccess(taskDto.getProjectId());
+        long taskNumber = taskKeyAllocator.nextNumber(taskDto.getProjectId());
+        return transactionTemplate.execute(status -> {
+            User reporter = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            Project project = projectRepository.findActiveById(taskDto.getProjectId())
+                    .orElseThrow(() -> new RuntimeException("Project not found"));
+            User assignee = null;
+            if (taskDto.getAssigneeId() != null) {
+                assignee = userRepository.findById(taskDto.getAssigneeId())
+                        .orElseThrow(() -> new RuntimeException("Assignee not found"));
+            }
+
+            Task task = taskRepository.save(buildTask(taskDto, project, reporter, assignee, taskNumber));
+            return publish(TaskChangedEvent.Type.CREATED, taskDtoMapper.toDto(task));
+        });
+    }
+
+    // Каждая попытка — отдельная транзакция. Если клиент не указал версию (If-Match или version),
+    // изменение — это присваивание отдельных полей поверх актуального состояния, поэтому при
+    // конфликте его можно повторить на свежей версии задачи. С указанной версией конфликт отдается клиенту.
+    public TaskDto updateTask(Long id, TaskDto taskDto, String username, String ifMatch) {
+        boolean versionPinned = taskDto.getVersion() != null
+                || (ifMatch != null && !ifMatch.isBlank() && !ifMatch.trim().equals("*"));
+        int attempts = versionPinned ? 1 : Math.max(1, maxUpdateAttempts);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> doUpdateTask(id, taskDto, username, ifMatch));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= attempts) {
+                    throw e;
+                }
+                log.debug("TaskService.updateTask - Version conflict on task {}, retry {}/{}", id, attempt, attempts - 1);
+                backoff(attempt, e);
+            }
+        }
+    }
+
+    private TaskDto doUpdateTask(Long id, TaskDto taskDto, String username, String ifMatch) {
         Task task = taskRepository.findById(id)
+                .filter(found -> !found.getProject().isDeleted())
                 .orElseThrow(() -> new RuntimeException("Task not found"));
-        return toDto(task);
+        projectAccessIndex.checkAccess(task.getProject().getId());
+
+        if (!ETags.matches(ifMatch, ETags.forTask(task.getId(), task.getVersion()))) {
+            throw new PreconditionFailedException("Task was modified by another request");
+        }
+        checkVersion(task, taskDto);
+
+        applyChanges(task, taskDto, () -> findCurrentUser(username), assigneeId -> userRepository.findById(assigneeId)
+                .orElseThrow(() -> new RuntimeException("Assignee not found")));
+
+        // flush, чтобы в ответ и в событие попали актуальные updatedAt и version
+        task = taskRepository.saveAndFlush(task);
+        return publish(TaskChangedEvent.Type.UPDATED, taskDtoMapper.toDto(task));
     }
 
     @Transactional
-    public TaskDto createTask(TaskDto taskDto, String username) {
-        User reporter = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        Project project = projectRepository.findById(taskDto.getProjectId())
-                .orElseThrow(() -> new RuntimeException("Project not found"));
+    public void deleteTask(Long id) {
+        // Задачи удаляемого проекта уже скрыты, их удалит ProjectDeletionService
+        taskRepository.findById(id).filter(task -> !task.getProject().isDeleted()).ifPresent(task -> {
+            projectAccessIndex.checkAccess(task.getProject().getId());
+            taskSyncService.recordDeleted(List.of(task));
+            taskRepository.delete(task);
+            eventPublisher.publishEvent(new TaskChangedEvent(
+                    TaskChangedEvent.Type.DELETED, task.getProject().getId(), task.getId(), null));
+        });
+    }
+
+    // Пакетное создание/изменение/удаление задач в одной транзакции.
+    // Связанные задачи, проекты и пользователи загружаются одним findAllById на тип,
+    // ошибки проверки отдельных операций возвращаются в результате и не откатывают остальные.
+    // Ошибка уровня БД (ограничение, конфликт версий при flush, параллельное удаление) откатывает
+    // всю транзакцию — тогда операции повторяются каждая в своей транзакции, и статус каждой
+    // соответствует тому, что действительно закоммичено.
+    public List<TaskBatchResult> applyBatch(TaskBatchRequest request, String username) {
+        List<TaskBatchRequest.Operation> operations = request.getOperations();
+        Map<Integer, Long> taskNumbers = reserveTaskNumbers(operations);
+        try {
+            return transactionTemplate.execute(status -> doApplyBatch(operations, 0, taskNumbers, username, status));
+        } catch (CannotCreateTransactionException e) {
+            throw e; // БД недоступна — повторять по одной бессмысленно
+        } catch (DataAccessException | TransactionException e) {
+            log.info("TaskService.applyBatch - Batch of {} rolled back ({}), applying operations one by one",
+                    operations.size(), e.getMessage());
+        }
+
+        List<TaskBatchResult> results = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            TaskBatchRequest.Operation operation = operations.get(i);
+            int index = i;
+            try {
+                results.addAll(transactionTemplate.execute(
+                        status -> doApplyBatch(List.of(operation), index, taskNumbers, username, status)));
+            } catch (CannotCreateTransactionException e) {
+                throw e;
+            } catch (DataAccessException | TransactionException e) {
+                results.add(TaskBatchResult.failed(i, operation.getAction(), operation.getId(), describeFailure(e)));
+            }
+        }
+        return results;
+    }
 
+    // Номера для создаваемых задач — до транзакции пакета (см. createTask), по индексу операции.
+    // Если пакет откатится и операции пойдут по одной, номера переиспользуются: откаченные не заняты
+    private Map<Integer, Long> reserveTaskNumbers(List<TaskBatchRequest.Operation> operations) {
+        Map<Integer, Long> taskNumbers = new HashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            TaskBatchRequest.Operation operation = operations.get(i);
+            TaskDto taskDto = operation.getTask();
+            if (operation.getAction() != TaskBatchRequest.Action.CREATE || taskDto == null
+                    || taskDto.getProjectId() == null || !projectAccessIndex.canAccess(taskDto.getProjectId())) {
+                continue; // ошибку вернет сама операция
+            }
+            try {
+                taskNumbers.put(i, taskKeyAllocator.nextNumber(taskDto.getProjectId()));
+            } catch (RuntimeException e) {
+                // Проекта нет — операция получит "Project not found"
+            }
+        }
+        return taskNumbers;
+    }
+
+    private List<TaskBatchResult> doApplyBatch(List<TaskBatchRequest.Operation> operations, int firstIndex,
+                                               Map<Integer, Long> taskNumbers, String username, TransactionStatus status) {
+
+        Set<Long> taskIds = new HashSet<>();
+        Set<Long> projectIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        for (TaskBatchRequest.Operation operation : operations) {
+            if (operation.getId() != null) taskIds.add(operation.getId());
+            TaskDto taskDto = operation.getTask();
+            if (taskDto != null) {
+                if (taskDto.getProjectId() != null) projectIds.add(taskDto.getProjectId());
+                if (taskDto.getAssigneeId() != null) userIds.add(taskDto.getAssigneeId());
+            }
+        }
+        Map<Long, Task> tasks = taskRepository.findAllById(taskIds).stream()
+                .filter(task -> !task.getProject().isDeleted())
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        Map<Long, Project> projects = projectRepository.findAllById(projectIds).stream()
+                .filter(project -> !project.isDeleted())
+                .collect(Collectors.toMap(Project::getId, Function.identity()));
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        // Текущий пользователь нужен не всегда (автор новых задач, автоназначение) — ищем его один раз по требованию
+        User[] currentUser = new User[1];
+        Supplier<User> currentUserSupplier = () -> {
+            if (currentUser[0] == null) currentUser[0] = findCurrentUser(username);
+            return currentUser[0];
+        };
+        Function<Long, User> assigneeResolver = assigneeId -> {
+            User assignee = users.get(assigneeId);
+            if (assignee == null) throw new RuntimeException("Assignee not found");
+            return assignee;
+        };
+
+        List<TaskBatchResult> results = new ArrayList<>(operations.size());
+        List<Long> idsToDelete = new ArrayList<>();
+        for (int i = firstIndex; i < firstIndex + operations.size(); i++) {
+            TaskBatchRequest.Operation operation = operations.get(i - firstIndex);
+            TaskBatchRequest.Action action = operation.getAction();
+            try {
+                switch (action) {
+                    case CREATE -> {
+                        TaskDto taskDto = operation.getTask();
+                        if (taskDto == null || taskDto.getTitle() == null || taskDto.getProjectId() == null) {
+                            throw new RuntimeException("Title and projectId are required");
+                        }
+                        Project project = projects.get(taskDto.getProjectId());
+                        if (project == null) throw new RuntimeException("Project not found");
+                        projectAccessIndex.checkAccess(project.getId());
+                        Long taskNumber = taskNumbers.get(i);
+                        if (taskNumber == null) throw new RuntimeException("Project not found");
+                        User assignee = taskDto.getAssigneeId() != null ? assigneeResolver.apply(taskDto.getAssigneeId()) : null;
+                        Task task = taskRepository.save(buildTask(taskDto, project, currentUserSupplier.get(), assignee, taskNumber));
+                        results.add(TaskBatchResult.ok(i, action, task.getId(), publish(TaskChangedEvent.Type.CREATED, taskDtoMapper.toDto(task))));
+                    }
+                    case UPDATE -> {
+                        Task task = tasks.get(operation.getId());
+                        if (task == null) throw new RuntimeException("Task not found");
+                        projectAccessIndex.checkAccess(task.getProject().getId());
+                        if (operation.getTask() == null) throw new RuntimeException("Task data is required");
+                        checkVersion(task, operation.getTask());
+                        applyChanges(task, operation.getTask(), currentUserSupplier, assigneeResolver);
+                        results.add(TaskBatchResult.ok(i, action, task.getId(), null));
+                    }
+                    case DELETE -> {
+                        Task task = tasks.get(operation.getId());
+                        if (task == null) throw new RuntimeException("Task not found");
+                        projectAccessIndex.checkAccess(task.getProject().getId());
+                        idsToDelete.add(operation.getId());
+                        results.add(TaskBatchResult.ok(i, action, operation.getId(), null));
+                    }
+                }
+            } catch (RuntimeException e) {
+                if (status.isRollbackOnly()) {
+                    throw e; // ошибка БД: транзакция уже не закоммитится, "ok" у остальных был бы ложным
+                }
+                results.add(TaskBatchResult.failed(i, action, operation.getId(), e.getMessage()));
+            }
+        }
+
+        // Комментарии удаляются каскадом на уровне БД (fk_comments_task ON DELETE CASCADE)
+        if (!idsToDelete.isEmpty()) {
+            taskSyncService.recordDeleted(idsToDelete.stream().map(tasks::get).collect(Collectors.toList()));
+            taskRepository.deleteAllByIdInBatch(idsToDelete);
+        }
+        // Измененные задачи отдаем после flush, когда проставлены updatedAt
+        taskRepository.flush();
+        for (TaskBatchResult result : results) {
+            if (!result.isSuccess()) continue;
+            if (result.getAction() == TaskBatchRequest.Action.UPDATE) {
+                result.setTask(publish(TaskChangedEvent.Type.UPDATED, taskDtoMapper.toDto(tasks.get(result.getId()))));
+            } else if (result.getAction() == TaskBatchRequest.Action.DELETE) {
+                eventPublisher.publishEvent(new TaskChangedEvent(
+                        TaskChangedEvent.Type.DELETED, tasks.get(result.getId()).getProject().getId(), result.getId(), null));
+            }
+        }
+        return results;
+    }
+
+    private static String describeFailure(RuntimeException e) {
+        if (e instanceof OptimisticLockingFailureException) {
+            return "Task was modified by another request";
+        }
+        if (e instanceof DataIntegrityViolationException) {
+            return "Data integrity violation";
+        }
+        return e.getMessage();
+    }
+
+    private void checkVersion(Task task, TaskDto taskDto) {
+        if (taskDto.getVersion() != null && !taskDto.getVersion().equals(task.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Task.class, task.getId());
+        }
+    }
+
+    // Небольшая случайная пауза, чтобы конкурирующие запросы не столкнулись снова
+    private void backoff(int attempt, OptimisticLockingFailureException cause) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(5, 20L * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+
+    private TaskDto publish(TaskChangedEvent.Type type, TaskDto dto) {
+        eventPublisher.publishEvent(new TaskChangedEvent(type, dto.getProjectId(), dto.getId(), dto));
+        return dto;
+    }
+
+    private Task buildTask(TaskDto taskDto, Project project, User reporter, User assignee, long taskNumber) {
         Task task = new Task();
         task.setTitle(taskDto.getTitle());
         task.setDescription(taskDto.getDescription());
@@ -56,26 +406,18 @@ public class TaskService {
         task.setPriority(taskDto.getPriority() != null ? taskDto.getPriority() : Task.Priority.MEDIUM);
         task.setProject(project);
         task.setReporter(reporter);
+        task.setAssignee(assignee);
 
-        if (taskDto.getAssigneeId() != null) {
-            User assignee = userRepository.findById(taskDto.getAssigneeId())
-                    .orElseThrow(() -> new RuntimeException("Assignee not found"));
-            task.setAssignee(assignee);
-        }
-
-        // Генерация ключа задачи
-        String projectKey = project.getKey();
-        long taskNumber = taskRepository.count() + 1;
-        task.setKey(projectKey + "-" + taskNumber);
-
-        task = taskRepository.save(task);
-        return toDto(task);
+        // Ключ задачи: номер заранее выдан счетчиком проекта
+        task.setKey(project.getKey() + "-" + taskNumber);
+        return task;
     }
 
-    @Transactional
-    public TaskDto updateTask(Long id, TaskDto taskDto, String username) {
-        Task task = taskRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Task not found"));
+    private void applyChanges(Task task, TaskDto taskDto, Supplier<User> currentUser, Function<Long, User> assigneeResolver) {
+        // Пользователей находим до изменения полей, чтобы ошибка не оставила задачу частично измененной
+        User explicitAssignee = taskDto.getAssigneeId() != null ? assigneeResolver.apply(taskDto.getAssigneeId()) : null;
+        boolean autoAssign = taskDto.getStatus() == Task.TaskStatus.IN_PROGRESS && task.getAssignee() == null;
+        User user = autoAssign && explicitAssignee == null ? currentUser.get() : null;
 
         if (taskDto.getTitle() != null) task.setTitle(taskDto.getTitle());
         if (taskDto.getDescription() != null) task.setDescription(taskDto.getDescription());
@@ -88,16 +430,9 @@ public class TaskService {
             task.setStatus(newStatus);
 
             // Если статус меняется на IN_PROGRESS и у задачи нет исполнителя, назначаем текущего пользователя
-            if (newStatus == Task.TaskStatus.IN_PROGRESS && task.getAssignee() == null) {
-                log.info("TaskService.updateTask - Assigning task to user: {}", username);
-                User currentUser = userRepository.findByUsername(username)
-                        .orElseGet(() -> {
-                            log.info("User not found by username, trying by email: {}", username);
-                            return userRepository.findByEmail(username)
-                                    .orElseThrow(() -> new RuntimeException("User not found with username/email: " + username));
-                        });
-                log.info("TaskService.updateTask - Found user: ID={}, Username={}", currentUser.getId(), currentUser.getUsername());
-                task.setAssignee(currentUser);
+            if (user != null) {
+                log.info("TaskService.updateTask - Assigning task {} to user: ID={}, Username={}", task.getId(), user.getId(), user.getUsername());
+                task.setAssignee(user);
             }
             // Если статус меняется на TODO, убираем исполнителя
             else if (newStatus == Task.TaskStatus.TODO) {
@@ -106,41 +441,18 @@ public class TaskService {
         }
 
         // Если assigneeId явно указан в DTO, используем его (для ручного назначения)
-        if (taskDto.getAssigneeId() != null) {
-            User assignee = userRepository.findById(taskDto.getAssigneeId())
-                    .orElseThrow(() -> new RuntimeException("Assignee not found"));
-            task.setAssignee(assignee);
+        if (explicitAssignee != null) {
+            task.setAssignee(explicitAssignee);
         }
-
-        task = taskRepository.save(task);
-        return toDto(task);
     }
 
-    @Transactional
-    public void deleteTask(Long id) {
-        taskRepository.deleteById(id);
-    }
-
-    private TaskDto toDto(Task task) {
-        TaskDto dto = new TaskDto();
-        dto.setId(task.getId());
-        dto.setTitle(task.getTitle());
-        dto.setDescription(task.getDescription());
-        dto.setKey(task.getKey());
-        dto.setType(task.getType());
-        dto.setStatus(task.getStatus());
-        dto.setPriority(task.getPriority());
-        dto.setProjectId(task.getProject().getId());
-        dto.setProjectName(task.getProject().getName());
-        dto.setReporterId(task.getReporter().getId());
-        dto.setReporterUsername(task.getReporter().getUsername());
-        if (task.getAssignee() != null) {
-            dto.setAssigneeId(task.getAssignee().getId());
-            dto.setAssigneeUsername(task.getAssignee().getUsername());
-        }
-        dto.setCreatedAt(task.getCreatedAt());
-        dto.setUpdatedAt(task.getUpdatedAt());
-        return dto;
+    private User findCurrentUser(String username) {
+        return userRepository.findByUsername(username)
+                .orElseGet(() -> {
+                    log.info("User not found by username, trying by email: {}", username);
+                    return userRepository.findByEmail(username)
+                            .orElseThrow(() -> new RuntimeException("User not found with username/email: " + username));
+                });
     }
 }
 
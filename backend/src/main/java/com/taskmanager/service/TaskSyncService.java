@@ -0,0 +1,134 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dto.TaskChangesDto;
+import com.taskmanager.dto.TaskDto;
+import com.taskmanager.dto.TaskFilter;
+import com.taskmanager.exception.SyncTokenExpiredException;
+import com.taskmanager.model.Task;
+import com.taskmanager.model.TaskTombstone;
+import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.repository.TaskTombstoneRepository;
+import com.taskmanager.util.KeysetCursor;
+import com.taskmanager.util.SyncToken;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Инкрементальная синхронизация задач: изменения по updated_at и удаления по task_tombstones
+@Slf4j
+@Service
+@Timed("taskmanager.service")
+public class TaskSyncService {
+    private static final int DEFAULT_PAGE_SIZE = 500;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final KeysetCursor FROM_BEGINNING = new KeysetCursor(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    private final TaskRepository taskRepository;
+    private final TaskTombstoneRepository taskTombstoneRepository;
+    private final Duration commitLag;
+    private final Duration retention;
+
+    public TaskSyncService(TaskRepository taskRepository,
+                           TaskTombstoneRepository taskTombstoneRepository,
+                           @Value("${taskmanager.sync.commit-lag:5s}") Duration commitLag,
+                           @Value("${taskmanager.sync.retention:30d}") Duration retention) {
+        this.taskRepository = taskRepository;
+        this.taskTombstoneRepository = taskTombstoneRepository;
+        this.commitLag = commitLag;
+        this.retention = retention;
+    }
+
+    // Не readOnly: всегда основная БД. На реплике с отставанием больше commitLag водяной знак ушел бы
+    // дальше еще не доехавших строк, и эти изменения и удаления клиент не получил бы никогда
+    @Transactional
+    public TaskChangesDto getChanges(List<Long> projectIds, String since, Integer limit) {
+        int pageSize = limit != null ? Math.max(1, Math.min(limit, MAX_PAGE_SIZE)) : DEFAULT_PAGE_SIZE;
+        // Время БД, а не инстанса: при расхождении часов между инстансами знак не убегает вперед
+        LocalDateTime now = taskRepository.findDatabaseNow();
+        // updatedAt проставляется при flush, а видна строка только после commit. Отдаем изменения
+        // с отставанием commitLag, чтобы транзакция, закоммиченная позже, не оказалась позади водяного знака
+        LocalDateTime before = now.minus(commitLag);
+
+        SyncToken token;
+        if (since == null || since.isBlank()) {
+            // Первая синхронизация: все задачи, а удаления — только начиная с этого момента
+            token = new SyncToken(FROM_BEGINNING, new KeysetCursor(before, 0L));
+        } else {
+            token = SyncToken.decode(since);
+            if (token.deleted().timestamp().isBefore(now.minus(retention))) {
+                throw new SyncTokenExpiredException("Sync token expired, full resync required");
+            }
+        }
+
+        TaskFilter filter = new TaskFilter(projectIds, null, null, null, null);
+        List<TaskDto> changed = taskRepository.findDtoChangedBetween(filter, token.changed(), before, pageSize + 1);
+        boolean moreChanged = changed.size() > pageSize;
+        KeysetCursor changedCursor;
+        if (moreChanged) {
+            changed = changed.subList(0, pageSize);
+            TaskDto last = changed.get(pageSize - 1);
+            changedCursor = new KeysetCursor(last.getUpdatedAt(), last.getId());
+        } else {
+            changedCursor = advance(token.changed(), before);
+        }
+
+        KeysetCursor deletedAfter = token.deleted();
+        List<TaskTombstone> tombstones;
+        if (projectIds == null) {
+            tombstones = taskTombstoneRepository.findPage(deletedAfter.timestamp(), deletedAfter.id(), before, Limit.of(pageSize + 1));
+        } else if (projectIds.isEmpty()) {
+            tombstones = List.of(); // нет доступных проектов
+        } else {
+            tombstones = taskTombstoneRepository.findPageByProjectIdIn(projectIds, deletedAfter.timestamp(), deletedAfter.id(), before, Limit.of(pageSize + 1));
+        }
+        boolean moreDeleted = tombstones.size() > pageSize;
+        KeysetCursor deletedCursor;
+        if (moreDeleted) {
+            tombstones = tombstones.subList(0, pageSize);
+            TaskTombstone last = tombstones.get(pageSize - 1);
+            deletedCursor = new KeysetCursor(last.getDeletedAt(), last.getTaskId());
+        } else {
+            deletedCursor = advance(deletedAfter, before);
+        }
+
+        List<Long> deletedIds = tombstones.stream().map(TaskTombstone::getTaskId).collect(Collectors.toList());
+        return new TaskChangesDto(changed, deletedIds, new SyncToken(changedCursor, deletedCursor).encode(),
+                moreChanged || moreDeleted);
+    }
+
+    // Все до before отдано: следующий запрос начинается с before (включительно), но не раньше прежней позиции
+    private KeysetCursor advance(KeysetCursor current, LocalDateTime before) {
+        return current.timestamp().isBefore(before) ? new KeysetCursor(before, 0L) : current;
+    }
+
+    // Вызывается в транзакции удаления, до удаления самих задач
+    public void recordDeleted(Collection<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        LocalDateTime deletedAt = LocalDateTime.now();
+        taskTombstoneRepository.saveAll(tasks.stream()
+                .map(task -> new TaskTombstone(task.getId(), task.getProject().getId(), deletedAt))
+                .collect(Collectors.toList()));
+    }
+
+    // Старые отметки больше не нужны: клиент с таким токеном получит 410 и синхронизируется заново
+    @Scheduled(fixedDelayString = "${taskmanager.sync.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpiredTombstones() {
+        int purged = taskTombstoneRepository.deleteOlderThan(LocalDateTime.now().minus(retention));
+        if (purged > 0) {
+            log.info("Purged {} task tombstones older than {}", purged, retention);
+        }
+    }
+}
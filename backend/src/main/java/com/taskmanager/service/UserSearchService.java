@@ -0,0 +1,217 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dto.UserSummaryDto;
+import com.taskmanager.event.UserChangedEvent;
+import com.taskmanager.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Подсказки пользователей по префиксу username, имени или фамилии; администратору — еще и по префиксу email.
+// Остальным email не ищется: по ответам на растущий префикс адрес можно было бы восстановить посимвольно.
+// По умолчанию — запрос к БД по индексам из 018-add-user-search-indexes. С taskmanager.user-search.in-memory
+// поиск идет по отсортированным префиксным индексам в памяти; они обновляются после коммита изменения
+// пользователя (UserChangedEvent), изменения с других инстансов — полной перезагрузкой раз в reload-interval-ms.
+// Область проекта (projectId) берется из ProjectAccessIndex, отставание которого ограничено его сверкой версий.
+@Slf4j
+@Service
+public class UserSearchService {
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 50;
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final UserRepository userRepository;
+    private final ProjectAccessIndex projectAccessIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean inMemory;
+    private final Object writeLock = new Object();
+
+    private volatile Directory directory = new Directory();
+
+    public UserSearchService(UserRepository userRepository,
+                             ProjectAccessIndex projectAccessIndex,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${taskmanager.user-search.in-memory:false}") boolean inMemory) {
+        this.userRepository = userRepository;
+        this.projectAccessIndex = projectAccessIndex;
+        // Не readOnly: после изменения пользователя читаем из основной БД, а не из реплики
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.inMemory = inMemory;
+    }
+
+    @PostConstruct
+    void init() {
+        reload();
+    }
+
+    @Scheduled(initialDelayString = "${taskmanager.user-search.reload-interval-ms:60000}",
+            fixedDelayString = "${taskmanager.user-search.reload-interval-ms:60000}")
+    public void reload() {
+        if (!inMemory) {
+            return;
+        }
+        synchronized (writeLock) {
+            Directory loaded = new Directory();
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Object[] row : userRepository.findAllSearchEntries()) {
+                    loaded.add(new IndexedUser(new UserSummaryDto((Long) row[0], (String) row[1],
+                            (String) row[3], (String) row[4]), (String) row[2]));
+                }
+            });
+            directory = loaded;
+            log.debug("User search index loaded: {} users", loaded.users.size());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!inMemory || event.userId() == null) {
+            return;
+        }
+        synchronized (writeLock) {
+            IndexedUser updated = transactionTemplate.execute(status -> userRepository.findById(event.userId())
+                    .map(user -> new IndexedUser(new UserSummaryDto(user.getId(), user.getUsername(),
+                            user.getFirstName(), user.getLastName()), user.getEmail()))
+                    .orElse(null));
+            directory.replace(event.userId(), updated);
+        }
+    }
+
+    // Не больше limit результатов (до 50); с projectId — только владелец и участники проекта
+    @Transactional(readOnly = true)
+    public List<UserSummaryDto> search(String prefix, Long projectId, Integer limit) {
+        String normalized = prefix != null ? prefix.trim().toLowerCase(Locale.ROOT) : "";
+        if (normalized.isEmpty()) {
+            throw new RuntimeException("Search prefix is required");
+        }
+        int size = limit != null ? Math.max(1, Math.min(limit, MAX_LIMIT)) : DEFAULT_LIMIT;
+        boolean matchEmail = projectAccessIndex.currentUser().isAdmin();
+
+        long[] scope = null;
+        if (projectId != null) {
+            projectAccessIndex.checkAccess(projectId);
+            scope = projectAccessIndex.userIdsOf(projectId);
+            if (scope.length == 0) {
+                return List.of();
+            }
+        }
+
+        if (inMemory) {
+            return directory.search(normalized, scope, size, matchEmail);
+        }
+        String pattern = normalized
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        if (scope == null) {
+            return matchEmail
+                    ? userRepository.searchByPrefixOrEmail(normalized, pattern, Limit.of(size))
+                    : userRepository.searchByPrefix(normalized, pattern, Limit.of(size));
+        }
+        List<Long> ids = Arrays.stream(scope).boxed().toList();
+        return matchEmail
+                ? userRepository.searchByPrefixOrEmailAndIdIn(normalized, pattern, ids, Limit.of(size))
+                : userRepository.searchByPrefixAndIdIn(normalized, pattern, ids, Limit.of(size));
+    }
+
+    private record IndexedUser(UserSummaryDto summary, String email) {
+    }
+
+    // Три упорядоченных индекса в порядке ранга: ключ "значение\0id" -> id пользователя.
+    // Все ключи с префиксом — непрерывный диапазон subMap, уже отсортированный по значению
+    private static class Directory {
+        private final Map<Long, IndexedUser> users = new ConcurrentHashMap<>();
+        private final NavigableMap<String, Long> byUsername = new ConcurrentSkipListMap<>();
+        private final NavigableMap<String, Long> byName = new ConcurrentSkipListMap<>();
+        private final NavigableMap<String, Long> byEmail = new ConcurrentSkipListMap<>();
+
+        void add(IndexedUser user) {
+            Long id = user.summary().getId();
+            users.put(id, user);
+            put(byUsername, user.summary().getUsername(), id);
+            put(byName, user.summary().getFirstName(), id);
+            put(byName, user.summary().getLastName(), id);
+            put(byEmail, user.email(), id);
+        }
+
+        // Сначала добавляются новые ключи, потом удаляются устаревшие: читатель без блокировок может
+        // ненадолго увидеть оба ключа (дубли отсекает putIfAbsent), но не момент, когда пользователя нет.
+        // updated == null — пользователь удален
+        void replace(Long id, IndexedUser updated) {
+            IndexedUser previous = updated != null ? users.get(id) : users.remove(id);
+            if (updated != null) {
+                add(updated);
+            }
+            if (previous == null) {
+                return;
+            }
+            UserSummaryDto before = previous.summary();
+            UserSummaryDto after = updated != null ? updated.summary() : new UserSummaryDto();
+            String email = updated != null ? updated.email() : null;
+            removeStale(byUsername, id, before.getUsername(), after.getUsername());
+            removeStale(byName, id, before.getFirstName(), after.getFirstName(), after.getLastName());
+            removeStale(byName, id, before.getLastName(), after.getFirstName(), after.getLastName());
+            removeStale(byEmail, id, previous.email(), email);
+        }
+
+        List<UserSummaryDto> search(String prefix, long[] scope, int limit, boolean matchEmail) {
+            Map<Long, UserSummaryDto> result = new LinkedHashMap<>();
+            for (NavigableMap<String, Long> index : matchEmail ? List.of(byUsername, byName, byEmail) : List.of(byUsername, byName)) {
+                for (Long id : index.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+                    if (result.size() >= limit) {
+                        return new ArrayList<>(result.values());
+                    }
+                    if (scope != null && Arrays.binarySearch(scope, id) < 0) {
+                        continue;
+                    }
+                    IndexedUser user = users.get(id);
+                    if (user != null) {
+                        result.putIfAbsent(id, user.summary());
+                    }
+                }
+            }
+            return new ArrayList<>(result.values());
+        }
+
+        private static void put(NavigableMap<String, Long> index, String value, Long id) {
+            if (value != null && !value.isBlank()) {
+                index.put(key(value, id), id);
+            }
+        }
+
+        // Удаляет ключ прежнего значения, если он не совпадает ни с одним из текущих значений того же индекса
+        private static void removeStale(NavigableMap<String, Long> index, Long id, String previous, String... current) {
+            if (previous == null || previous.isBlank()) {
+                return;
+            }
+            String stale = key(previous, id);
+            for (String value : current) {
+                if (value != null && !value.isBlank() && key(value, id).equals(stale)) {
+                    return;
+                }
+            }
+            index.remove(stale);
+        }
+
+        private static String key(String value, Long id) {
+            return value == null ? "" : value.toLowerCase(Locale.ROOT) + KEY_SEPARATOR + id;
+        }
+    }
+}
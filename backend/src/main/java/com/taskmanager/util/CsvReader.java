@@ -0,0 +1,91 @@
+package com.taskmanager.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Потоковый разбор CSV по RFC 4180: значения в кавычках могут содержать запятые,
+// переводы строк и удвоенные кавычки. Читает по одной записи, весь файл в память не грузит.
+public class CsvReader {
+    private final Reader reader;
+    private int pending = -2; // символ, прочитанный наперед; -2 — нет
+    private long recordNumber; // для сообщений об ошибках; заголовок — запись 1
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    // Следующая запись или null в конце файла; пустые строки пропускаются
+    public List<String> readRecord() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            if (c == '\r' || c == '\n') {
+                if (c == '\r') skipLineFeed();
+                continue;
+            }
+            unread(c);
+            recordNumber++;
+            return readFields();
+        }
+    }
+
+    private List<String> readFields() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            int c = read();
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted value in record " + recordNumber);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(next);
+                    }
+                } else {
+                    field.append((char) c);
+                }
+                continue;
+            }
+            if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') skipLineFeed();
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    private void skipLineFeed() throws IOException {
+        int next = read();
+        if (next != '\n') unread(next);
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pending = c;
+    }
+}
@@ -0,0 +1,52 @@
+package com.taskmanager.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+// Сильные ETag'и: для сущности — id + @Version, для коллекций — хэш версий и параметров запроса
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String forEntity(String kind, Long id, Long version) {
+        return "\"" + kind + id + "-v" + (version != null ? version : 0) + "\"";
+    }
+
+    public static String forTask(Long id, Long version) {
+        return forEntity("t", id, version);
+    }
+
+    public static String forProject(Long id, Long version) {
+        return forEntity("p", id, version);
+    }
+
+    public static String forCollection(Object... parts) {
+        StringBuilder source = new StringBuilder();
+        for (Object part : parts) {
+            source.append(part).append('|');
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"c" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Сравнение для If-Match: строгое, слабые теги (W/) не совпадают никогда
+    public static boolean matches(String ifMatch, String etag) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return true;
+        }
+        for (String candidate : ifMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,58 +1,166 @@
 package com.taskmanager.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtil {
+    private static final String ROLE_CLAIM = "role";
+    private static final String USER_ID_CLAIM = "uid";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    // Роль и id пользователя кладутся в токен, и фильтр строит пользователя прямо из claims, без обращения к БД.
+    // Смена роли в этом режиме вступает в силу только после перевыпуска токена.
+    @Value("${jwt.embed-role:false}")
+    private boolean embedRole;
+
+    @Value("${jwt.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    // Ключ и парсер неизменяемы и потокобезопасны — создаем один раз
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Уже проверенные токены: ключ — SHA-256 от токена, запись живет не дольше exp токена
+    private Cache<String, Claims> claimsCache;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        claimsCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new ClaimsExpiry())
+                .recordStats()
+                .build();
     }
 
     public String generateToken(String username) {
+        return generateToken(null, username, null);
+    }
+
+    public String generateToken(Long userId, String username, String role) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .subject(username)
                 .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .expiration(expiryDate);
+        if (embedRole && role != null && userId != null) {
+            builder.claim(ROLE_CLAIM, role);
+            builder.claim(USER_ID_CLAIM, userId);
+        }
+        return builder
+                .signWith(signingKey)
                 .compact();
     }
 
+    // Роль из токена, если включен режим jwt.embed-role и токен выпущен с ней
+    public String getRole(Claims claims) {
+        return embedRole ? claims.get(ROLE_CLAIM, String.class) : null;
+    }
+
+    public Long getUserId(Claims claims) {
+        return embedRole ? claims.get(USER_ID_CLAIM, Long.class) : null;
+    }
+
+    // Проверяет подпись и срок действия токена один раз и возвращает claims, для невалидного токена — null
+    public Claims verifyToken(String token) {
+        if (!cacheEnabled) {
+            return parse(token);
+        }
+        String cacheKey = hash(token);
+        Claims claims = claimsCache.getIfPresent(cacheKey);
+        if (claims == null) {
+            claims = parse(token);
+            if (claims != null) {
+                claimsCache.put(cacheKey, claims);
+            }
+        }
+        return claims;
+    }
+
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.getSubject();
+        Claims claims = verifyToken(token);
+        return claims != null ? claims.getSubject() : null;
     }
 
     public boolean validateToken(String token) {
+        return verifyToken(token) != null;
+    }
+
+    public CacheStats getCacheStats() {
+        return claimsCache.stats();
+    }
+
+    // Для метрик (MetricsConfig)
+    public Cache<?, ?> getCache() {
+        return claimsCache;
+    }
+
+    private Claims parse(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+            return parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
         }
     }
-}
 
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private class ClaimsExpiry implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiresAt = claims.getExpiration();
+            long ttlMillis = expiresAt != null ? expiresAt.getTime() - System.currentTimeMillis() : expiration;
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(ttlMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
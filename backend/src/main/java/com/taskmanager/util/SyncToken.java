@@ -0,0 +1,20 @@
+package com.taskmanager.util;
+
+// Водяной знак синхронизации: позиция в изменениях задач (updatedAt, id) и в удалениях (deletedAt, taskId).
+// Наружу отдается как непрозрачный токен
+public record SyncToken(KeysetCursor changed, KeysetCursor deleted) {
+
+    public String encode() {
+        return changed.encode() + "." + deleted.encode();
+    }
+
+    public static SyncToken decode(String token) {
+        int separator = token.indexOf('.');
+        if (separator < 0) {
+            throw new RuntimeException("Invalid sync token");
+        }
+        return new SyncToken(
+                KeysetCursor.decode(token.substring(0, separator)),
+                KeysetCursor.decode(token.substring(separator + 1)));
+    }
+}
@@ -0,0 +1,153 @@
+package com.taskmanager.service;
+
+import com.taskmanager.config.AuthenticatedUser;
+import com.taskmanager.dto.TaskDto;
+import com.taskmanager.model.Project;
+import com.taskmanager.model.User;
+import com.taskmanager.repository.ProjectRepository;
+import com.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Параллельное создание задач с маленьким блоком номеров: блок пополняется много раз,
+// и ни один номер не должен быть выдан дважды — ни одним инстансом, ни несколькими сразу
+@SpringBootTest(properties = "taskmanager.task-key.block-size=3")
+@ActiveProfiles("test")
+class TaskKeyAllocatorConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int TASKS_PER_THREAD = 250;
+    private static final int INSTANCES = 4;
+    private static final int NUMBERS_PER_INSTANCE_THREAD = 1000;
+
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void parallelCreatesGetUniqueKeys() throws Exception {
+        User savedOwner = createOwner();
+        Long projectId = createProject(savedOwner);
+
+        AuthenticatedUser principal = new AuthenticatedUser(savedOwner.getId(), savedOwner.getUsername(), "",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                results.add(executor.submit(() -> {
+                    SecurityContextHolder.getContext().setAuthentication(
+                            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+                    try {
+                        start.await();
+                        List<String> keys = new ArrayList<>();
+                        for (int i = 0; i < TASKS_PER_THREAD; i++) {
+                            TaskDto dto = new TaskDto();
+                            dto.setTitle("Task " + i);
+                            dto.setProjectId(projectId);
+                            keys.add(taskService.createTask(dto, savedOwner.getUsername()).getKey());
+                        }
+                        return keys;
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            }
+            start.countDown();
+
+            List<String> returned = new ArrayList<>();
+            for (Future<List<String>> result : results) {
+                returned.addAll(result.get());
+            }
+            assertThat(new HashSet<>(returned)).hasSize(THREADS * TASKS_PER_THREAD);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<String> stored = jdbcTemplate.queryForList(
+                "SELECT key FROM tasks WHERE project_id = ?", String.class, projectId);
+        assertThat(stored).hasSize(THREADS * TASKS_PER_THREAD).doesNotHaveDuplicates();
+    }
+
+    // Несколько аллокаторов с общим счетчиком в БД, как на нескольких инстансах: блоки не пересекаются
+    @Test
+    void severalAllocatorsShareCounterWithoutDuplicates() throws Exception {
+        Long projectId = createProject(createOwner());
+        List<TaskKeyAllocator> allocators = new ArrayList<>();
+        for (int i = 0; i < INSTANCES; i++) {
+            TaskKeyAllocator allocator = new TaskKeyAllocator(jdbcTemplate, transactionManager);
+            ReflectionTestUtils.setField(allocator, "blockSize", 7);
+            allocators.add(allocator);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(INSTANCES * 2);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Long>>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < INSTANCES * 2; t++) {
+                TaskKeyAllocator allocator = allocators.get(t % INSTANCES);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    List<Long> numbers = new ArrayList<>();
+                    for (int i = 0; i < NUMBERS_PER_INSTANCE_THREAD; i++) {
+                        numbers.add(allocator.nextNumber(projectId));
+                    }
+                    return numbers;
+                }));
+            }
+            start.countDown();
+
+            List<Long> numbers = new ArrayList<>();
+            for (Future<List<Long>> result : results) {
+                numbers.addAll(result.get());
+            }
+            assertThat(numbers).hasSize(INSTANCES * 2 * NUMBERS_PER_INSTANCE_THREAD).doesNotHaveDuplicates();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private User createOwner() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User owner = new User();
+        owner.setUsername("owner-" + suffix);
+        owner.setEmail("owner-" + suffix + "@example.com");
+        owner.setRole(User.Role.ADMIN);
+        return userRepository.save(owner);
+    }
+
+    private Long createProject(User owner) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        Project project = new Project();
+        project.setName("Project " + suffix);
+        project.setKey("K" + suffix.toUpperCase());
+        project.setOwner(owner);
+        return projectRepository.save(project).getId();
+    }
+}
@@ -0,0 +1,109 @@
+package com.taskmanager.service;
+
+import com.taskmanager.dto.CursorPageDto;
+import com.taskmanager.dto.TaskDto;
+import com.taskmanager.dto.TaskFilter;
+import com.taskmanager.model.Comment;
+import com.taskmanager.model.Project;
+import com.taskmanager.model.Task;
+import com.taskmanager.model.User;
+import com.taskmanager.repository.CommentRepository;
+import com.taskmanager.repository.ProjectRepository;
+import com.taskmanager.repository.TaskRepository;
+import com.taskmanager.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Список задач строится одним запросом-проекцией: число SQL-запросов не зависит от количества задач,
+// их исполнителей и комментариев
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskListingQueryCountTest {
+    @Autowired
+    private TaskService taskService;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private ProjectRepository projectRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void listingRunsConstantNumberOfQueries() {
+        long single = countListingQueries(seedProject(1));
+        long many = countListingQueries(seedProject(50));
+
+        assertThat(single).isPositive();
+        assertThat(many).isEqualTo(single);
+    }
+
+    private long countListingQueries(Long projectId) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CursorPageDto<TaskDto> page = taskService.getAllTasks(
+                new TaskFilter(List.of(projectId), null, null, null, null), null, 100);
+        page.getItems().forEach(task -> assertThat(task.getAssigneeUsername()).isNotNull());
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Long seedProject(int taskCount) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User owner = userRepository.save(newUser("owner-" + suffix));
+
+        Project project = new Project();
+        project.setName("Project " + suffix);
+        project.setKey("Q" + suffix.toUpperCase());
+        project.setOwner(owner);
+        project = projectRepository.save(project);
+
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 1; i <= taskCount; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setKey(project.getKey() + "-" + i);
+            task.setProject(project);
+            task.setReporter(owner);
+            // У каждой задачи свой исполнитель — ленивые загрузки пользователей сразу были бы видны
+            task.setAssignee(userRepository.save(newUser("assignee-" + suffix + "-" + i)));
+            tasks.add(task);
+        }
+        tasks = taskRepository.saveAll(tasks);
+
+        List<Comment> comments = new ArrayList<>();
+        for (Task task : tasks) {
+            for (int i = 0; i < 3; i++) {
+                Comment comment = new Comment();
+                comment.setContent("Comment " + i);
+                comment.setTask(task);
+                comment.setAuthor(owner);
+                comments.add(comment);
+            }
+        }
+        commentRepository.saveAll(comments);
+        return project.getId();
+    }
+
+    private static User newUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        return user;
+    }
+}
@@ -174,6 +174,17 @@ function TaskCard({ task, onTaskClick }: TaskCardProps) {
           👤 {task.assigneeUsername}
         </div>
       )}
+      {!!task.commentCount && (
+        <div
+          style={{
+            marginTop: '4px',
+            fontSize: '11px',
+            color: '#6b778c',
+          }}
+        >
+          💬 {task.commentCount}
+        </div>
+      )}
     </div>
   )
 }
@@ -0,0 +1,100 @@
+import { useEffect, useState } from 'react'
+import { useQuery } from '@tanstack/react-query'
+import { usersApi } from '../services/api'
+import { UserSummary } from '../types/task'
+
+interface UserPickerProps {
+  projectId?: number
+  value: number | null
+  initialLabel?: string
+  onChange: (userId: number | null) => void
+}
+
+// Выбор пользователя с подсказками: запрос к /users/search после паузы в наборе,
+// вместо загрузки всего списка пользователей
+function UserPicker({ projectId, value, initialLabel, onChange }: UserPickerProps) {
+  const [input, setInput] = useState(initialLabel || '')
+  const [prefix, setPrefix] = useState('')
+  const [open, setOpen] = useState(false)
+
+  useEffect(() => {
+    const timer = setTimeout(() => setPrefix(input.trim()), 250)
+    return () => clearTimeout(timer)
+  }, [input])
+
+  const { data: users, isFetching } = useQuery<UserSummary[]>({
+    queryKey: ['users', 'search', projectId, prefix],
+    queryFn: () => usersApi.search(prefix, projectId),
+    enabled: open && prefix.length > 0,
+    staleTime: 30_000,
+  })
+
+  const select = (user: UserSummary | null) => {
+    onChange(user ? user.id : null)
+    setInput(user ? user.username : '')
+    setOpen(false)
+  }
+
+  return (
+    <div style={{ position: 'relative' }}>
+      <div style={{ display: 'flex', gap: '8px' }}>
+        <input
+          type="text"
+          value={input}
+          placeholder="Начните вводить имя"
+          onChange={(e) => {
+            setInput(e.target.value)
+            setOpen(true)
+          }}
+          onFocus={() => setOpen(true)}
+          onBlur={() => setTimeout(() => setOpen(false), 150)}
+        />
+        {value !== null && (
+          <button type="button" className="btn btn-secondary" onClick={() => select(null)}>
+            ✕
+          </button>
+        )}
+      </div>
+      {open && prefix.length > 0 && (
+        <ul style={{
+          position: 'absolute',
+          zIndex: 10,
+          left: 0,
+          right: 0,
+          margin: '4px 0 0',
+          padding: 0,
+          listStyle: 'none',
+          background: 'white',
+          border: '1px solid #dfe1e6',
+          borderRadius: '4px',
+          boxShadow: '0 4px 8px rgba(0,0,0,0.1)',
+          maxHeight: '240px',
+          overflowY: 'auto'
+        }}>
+          {isFetching && !users && <li style={{ padding: '8px 12px', color: '#6b778c' }}>Поиск...</li>}
+          {users?.length === 0 && <li style={{ padding: '8px 12px', color: '#6b778c' }}>Никого не найдено</li>}
+          {users?.map(user => (
+            <li
+              key={user.id}
+              onMouseDown={() => select(user)}
+              style={{
+                padding: '8px 12px',
+                cursor: 'pointer',
+                background: user.id === value ? '#f4f5f7' : undefined
+              }}
+            >
+              👤 {user.username}
+              {(user.firstName || user.lastName) && (
+                <span style={{ color: '#6b778c', marginLeft: '8px' }}>
+                  {[user.firstName, user.lastName].filter(Boolean).join(' ')}
+                </span>
+              )}
+            </li>
+          ))}
+        </ul>
+      )}
+    </div>
+  )
+}
+
+export default UserPicker
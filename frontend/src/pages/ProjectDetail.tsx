@@ -1,8 +1,9 @@
 import { useQuery, useMutation, useQueryClient } from '@tanstack/react-query'
 import { useParams, useNavigate } from 'react-router-dom'
 import { projectsApi, tasksApi } from '../services/api'
+import { subscribeToProjectEvents } from '../services/events'
 import { useAuth } from '../contexts/AuthContext'
-import { useState } from 'react'
+import { useState, useEffect } from 'react'
 import { KanbanBoard } from '../components/KanbanBoard'
 import { Task } from '../types/task'
 import '../App.css'
@@ -28,10 +29,26 @@ function ProjectDetail() {
 
   const { data: tasks, isLoading: tasksLoading } = useQuery({
     queryKey: ['tasks', id],
-    queryFn: () => tasksApi.getAll(Number(id)),
+    queryFn: () => tasksApi.getAll([Number(id)]),
     enabled: !!id,
   })
 
+  // Изменения других пользователей приходят через SSE и применяются к кэшу без перезагрузки списка
+  useEffect(() => {
+    if (!id) return
+    return subscribeToProjectEvents(
+      Number(id),
+      (event) => {
+        queryClient.setQueryData<Task[]>(['tasks', id], (current) => {
+          if (!current) return current
+          const rest = current.filter(task => task.id !== event.taskId)
+          return event.type === 'DELETED' || !event.task ? rest : [event.task, ...rest]
+        })
+      },
+      () => queryClient.invalidateQueries({ queryKey: ['tasks', id] }),
+    )
+  }, [id, queryClient])
+
   const createTaskMutation = useMutation({
     mutationFn: tasksApi.create,
     onSuccess: () => {
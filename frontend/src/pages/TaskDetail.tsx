@@ -1,9 +1,10 @@
 import { useQuery, useMutation, useQueryClient } from '@tanstack/react-query'
 import { useParams, useNavigate } from 'react-router-dom'
-import { tasksApi, usersApi } from '../services/api'
+import { tasksApi } from '../services/api'
 import { useAuth } from '../contexts/AuthContext'
 import { useState, useEffect } from 'react'
 import { Task } from '../types/task'
+import UserPicker from '../components/UserPicker'
 import '../App.css'
 
 function TaskDetail() {
@@ -27,11 +28,6 @@ function TaskDetail() {
     enabled: !!id,
   })
 
-  const { data: users } = useQuery<any[]>({
-    queryKey: ['users'],
-    queryFn: () => usersApi.getAll(),
-  })
-
   useEffect(() => {
     if (task) {
       setFormData({
@@ -165,15 +161,12 @@ function TaskDetail() {
                 </div>
                 <div className="form-group">
                   <label>Исполнитель</label>
-                  <select
-                    value={formData.assigneeId || ''}
-                    onChange={(e) => setFormData({ ...formData, assigneeId: e.target.value ? Number(e.target.value) : null })}
-                  >
-                    <option value="">Без исполнителя</option>
-                    {users?.map(u => (
-                      <option key={u.id} value={u.id}>{u.username}</option>
-                    ))}
-                  </select>
+                  <UserPicker
+                    projectId={task.projectId}
+                    value={formData.assigneeId}
+                    initialLabel={task.assigneeId === formData.assigneeId ? task.assigneeUsername : undefined}
+                    onChange={(assigneeId) => setFormData({ ...formData, assigneeId })}
+                  />
                 </div>
               </div>
               <div style={{ display: 'flex', gap: '10px', marginTop: '20px' }}>
@@ -1,4 +1,5 @@
 import axios from 'axios'
+import { CursorPage, ProjectSummary, Task, TaskFilter, UserSummary } from '../types/task'
 
 // В Docker используем относительный путь (проксируется через nginx)
 // При локальной разработке также используется прокси из vite.config.ts
@@ -56,6 +57,13 @@ export const usersApi = {
     const response = await api.get('/users')
     return response.data
   },
+  // Подсказки по префиксу; с projectId — только участники проекта
+  search: async (prefix: string, projectId?: number, limit = 10): Promise<UserSummary[]> => {
+    const params = new URLSearchParams({ prefix, limit: limit.toString() })
+    if (projectId) params.append('projectId', projectId.toString())
+    const response = await api.get(`/users/search?${params.toString()}`)
+    return response.data
+  },
 }
 
 export const projectsApi = {
@@ -67,6 +75,10 @@ export const projectsApi = {
     const response = await api.get(`/projects/${id}`)
     return response.data
   },
+  getSummary: async (id: number): Promise<ProjectSummary> => {
+    const response = await api.get(`/projects/${id}/summary`)
+    return response.data
+  },
   create: async (data: { name: string; description?: string; key: string }) => {
     const response = await api.post('/projects', data)
     return response.data
@@ -78,18 +90,49 @@ export const projectsApi = {
   delete: async (id: number) => {
     await api.delete(`/projects/${id}`)
   },
+  addMembers: async (id: number, userIds: number[]) => {
+    const response = await api.post(`/projects/${id}/members`, { userIds })
+    return response.data
+  },
+  removeMembers: async (id: number, userIds: number[]) => {
+    const response = await api.delete(`/projects/${id}/members`, { data: { userIds } })
+    return response.data
+  },
 }
 
 export const tasksApi = {
-  getAll: async (projectIds?: number[], assigneeId?: number) => {
+  getPage: async (filter: TaskFilter = {}, cursor?: string, limit?: number): Promise<CursorPage<Task>> => {
     const params = new URLSearchParams()
-    if (projectIds && projectIds.length > 0) {
-      projectIds.forEach(id => params.append('projectIds', id.toString()))
+    if (filter.projectIds && filter.projectIds.length > 0) {
+      filter.projectIds.forEach(id => params.append('projectIds', id.toString()))
     }
-    if (assigneeId) params.append('assigneeId', assigneeId.toString())
+    if (filter.assigneeId) params.append('assigneeId', filter.assigneeId.toString())
+    if (filter.status) params.append('status', filter.status)
+    if (filter.priority) params.append('priority', filter.priority)
+    if (filter.type) params.append('type', filter.type)
+    if (cursor) params.append('cursor', cursor)
+    if (limit) params.append('limit', limit.toString())
     const response = await api.get(`/tasks?${params.toString()}`)
     return response.data
   },
+  // Доска пока показывает все задачи, поэтому проходим по страницам курсора
+  getAll: async (projectIds?: number[], assigneeId?: number) => {
+    const tasks: Task[] = []
+    let cursor: string | undefined
+    do {
+      const page = await tasksApi.getPage({ projectIds, assigneeId }, cursor, 500)
+      tasks.push(...page.items)
+      cursor = page.nextCursor ?? undefined
+    } while (cursor)
+    return tasks
+  },
+  search: async (q: string, cursor?: string, limit?: number): Promise<CursorPage<Task>> => {
+    const params = new URLSearchParams({ q })
+    if (cursor) params.append('cursor', cursor)
+    if (limit) params.append('limit', limit.toString())
+    const response = await api.get(`/tasks/search?${params.toString()}`)
+    return response.data
+  },
   getById: async (id: number) => {
     const response = await api.get(`/tasks/${id}`)
     return response.data
@@ -0,0 +1,30 @@
+import { Task } from '../types/task'
+
+const API_URL = import.meta.env.VITE_API_URL || '/api'
+
+export interface TaskChangedEvent {
+  type: 'CREATED' | 'UPDATED' | 'DELETED'
+  projectId: number
+  taskId: number
+  task?: Task
+}
+
+// Подписка на SSE-поток изменений задач проекта. EventSource сам переподключается
+// и присылает Last-Event-ID, сервер досылает пропущенные события или resync.
+export function subscribeToProjectEvents(
+  projectId: number,
+  onChange: (event: TaskChangedEvent) => void,
+  onResync: () => void,
+) {
+  const token = localStorage.getItem('token')
+  const params = token ? `?access_token=${encodeURIComponent(token)}` : ''
+  const source = new EventSource(`${API_URL}/projects/${projectId}/events${params}`)
+
+  const handle = (e: MessageEvent) => onChange(JSON.parse(e.data))
+  source.addEventListener('created', handle)
+  source.addEventListener('updated', handle)
+  source.addEventListener('deleted', handle)
+  source.addEventListener('resync', () => onResync())
+
+  return () => source.close()
+}
@@ -14,5 +14,36 @@ export interface Task {
   assigneeUsername?: string
   createdAt: string
   updatedAt: string
+  version?: number
+  commentCount?: number
 }
 
+export interface TaskFilter {
+  projectIds?: number[]
+  assigneeId?: number
+  status?: Task['status']
+  priority?: Task['priority']
+  type?: Task['type']
+}
+
+export interface CursorPage<T> {
+  items: T[]
+  nextCursor?: string | null
+}
+
+
+export interface ProjectSummary {
+  projectId: number
+  total: number
+  byStatus: Record<Task['status'], number>
+  byPriority: Record<Task['priority'], number>
+  byType: Record<Task['type'], number>
+  byAssignee: { assigneeId: number | null; assigneeUsername: string | null; count: number }[]
+}
+
+export interface UserSummary {
+  id: number
+  username: string
+  firstName?: string
+  lastName?: string
+}